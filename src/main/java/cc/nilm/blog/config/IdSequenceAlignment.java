@@ -0,0 +1,47 @@
+package cc.nilm.blog.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 主鍵由 IDENTITY 改為 pooled 序列後，把各序列推進到既有的最大 ID 之後。
+ * <p>
+ * ddl-auto 新建的序列從 1 開始，既有資料的 ID 早已超過，直接寫入會撞號。pooled 序列每次 nextval
+ * 保留 (值 - 49, 值] 這段 ID，因此把序列設為目前的最大 ID，下一段便從最大 ID + 1 起算。
+ * 序列已領先時不動，可重複執行；依賴 EntityManagerFactory 確保在 Hibernate 建好序列之後、
+ * 任何寫入（包括 DataInitializer）之前執行。只處理 PostgreSQL，H2 測試資料庫每次都是新建的。
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class IdSequenceAlignment {
+
+    // 資料表與對應序列，需與各實體的 @SequenceGenerator 一致
+    static final List<String> TABLES = List.of(
+            "users", "roles", "refresh_tokens", "categories", "tags", "posts", "comments", "post_revisions");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void alignSequences() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) return;
+
+        for (String table : TABLES) {
+            String sequence = table + "_seq";
+            List<Long> aligned = jdbcTemplate.queryForList(
+                    "SELECT setval('" + sequence + "', m.max_id) FROM (SELECT MAX(id) AS max_id FROM " + table + ") m " +
+                    "WHERE m.max_id >= (SELECT last_value FROM " + sequence + ")", Long.class);
+            if (!aligned.isEmpty()) log.info("Sequence {} moved past existing id {}", sequence, aligned.get(0));
+        }
+    }
+}
@@ -14,6 +14,7 @@ public class JacksonConfig {
     public ObjectMapper objectMapper() {
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.registerModule(new LazyAttributeModule());
 
         // 避免序列化問題
         objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
@@ -0,0 +1,64 @@
+package cc.nilm.blog.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import jakarta.persistence.Basic;
+import jakarta.persistence.FetchType;
+import org.hibernate.Hibernate;
+import org.hibernate.engine.spi.PersistentAttributeInterceptable;
+
+import java.util.List;
+
+/**
+ * 序列化實體時略過尚未載入的延遲屬性（{@code @Basic(fetch = LAZY)}）。
+ * <p>
+ * 例如文章內文只在詳情頁載入；列表或分類回傳 Post 實體時，若照常呼叫 getter，
+ * bytecode enhancement 會逐筆查回內文，反而比不延遲更慢。已載入的屬性照常輸出。
+ */
+public class LazyAttributeModule extends SimpleModule {
+
+    public LazyAttributeModule() {
+        super("LazyAttributeModule");
+        setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription beanDesc,
+                                                             List<BeanPropertyWriter> beanProperties) {
+                if (!PersistentAttributeInterceptable.class.isAssignableFrom(beanDesc.getBeanClass())) {
+                    return beanProperties;
+                }
+                return beanProperties.stream()
+                        .map(writer -> isLazy(beanDesc, writer) ? new SkipUnloaded(writer) : writer)
+                        .toList();
+            }
+        });
+    }
+
+    private static boolean isLazy(BeanDescription beanDesc, BeanPropertyWriter writer) {
+        return beanDesc.findProperties().stream()
+                .filter(property -> property.getName().equals(writer.getName()) && property.hasField())
+                .map(property -> property.getField().getAnnotation(Basic.class))
+                .anyMatch(basic -> basic != null && basic.fetch() == FetchType.LAZY);
+    }
+
+    private static final class SkipUnloaded extends BeanPropertyWriter {
+
+        private final String attribute;
+
+        SkipUnloaded(BeanPropertyWriter base) {
+            super(base);
+            this.attribute = base.getName();
+        }
+
+        @Override
+        public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+            if (Hibernate.isPropertyInitialized(bean, attribute)) {
+                super.serializeAsField(bean, gen, prov);
+            }
+        }
+    }
+}
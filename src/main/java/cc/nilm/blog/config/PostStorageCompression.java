@@ -0,0 +1,52 @@
+package cc.nilm.blog.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 開啟 {@code app.posts.compression.enabled} 時，把 posts.content 的 TOAST 壓縮改為 lz4（PostgreSQL 14+）。
+ * <p>
+ * content 仍以純文字存放，search_vector generated column 與摘要的 SUBSTRING 都照常運作；
+ * 壓縮由資料庫在寫入時處理，比預設的 pglz 快且壓縮率相近。只影響之後寫入的值。
+ * <p>
+ * ALTER TABLE 需要 posts 的 ACCESS EXCLUSIVE 鎖，因此先從 pg_attribute 確認目前的設定，
+ * 已是 lz4 時不再執行；實際上只有第一次啟動的副本會變更欄位。
+ */
+@Component
+@ConditionalOnProperty(name = "app.posts.compression.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class PostStorageCompression {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // pg_attribute.attcompression：'l' 為 lz4，'p' 為 pglz，空白為沿用預設
+    static final String LZ4 = "l";
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void useLz4ForContent() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) return;
+
+        try {
+            String current = jdbcTemplate.queryForObject("SELECT attcompression::text FROM pg_attribute " +
+                    "WHERE attrelid = 'posts'::regclass AND attname = 'content'", String.class);
+            if (LZ4.equals(current)) {
+                log.debug("posts.content already uses lz4 compression");
+                return;
+            }
+            jdbcTemplate.execute("ALTER TABLE posts ALTER COLUMN content SET COMPRESSION lz4");
+            log.info("posts.content now uses lz4 compression");
+        } catch (Exception ex) {
+            // PostgreSQL 14 之前沒有 attcompression 與 lz4，維持預設壓縮
+            log.warn("Could not switch posts.content to lz4 compression: {}", ex.getMessage());
+        }
+    }
+}
@@ -101,6 +101,7 @@ public class WebSecurityConfig {
                         .requestMatchers("/api/tags/**").permitAll()
                         .requestMatchers("/api/comments/**").permitAll()
                         .requestMatchers("/api/public/**").permitAll()
+                        .requestMatchers("/sitemap.xml", "/sitemaps/**", "/feed.xml").permitAll()
                         // Swagger UI相關路徑開放訪問
                         .requestMatchers("/swagger-ui.html").permitAll()
                         .requestMatchers("/swagger-ui/**").permitAll()
@@ -125,7 +126,7 @@ public class WebSecurityConfig {
         configuration.setAllowedOriginPatterns(List.of("*"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
-        configuration.setExposedHeaders(List.of("Authorization", "X-Total-Count"));
+        configuration.setExposedHeaders(List.of("Authorization", "X-Total-Count", "ETag"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L); // 預檢請求緩存1小時
 
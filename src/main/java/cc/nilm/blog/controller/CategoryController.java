@@ -1,6 +1,7 @@
 package cc.nilm.blog.controller;
 
 import cc.nilm.blog.dto.CategoryDto;
+import cc.nilm.blog.dto.CategorySummary;
 import cc.nilm.blog.dto.MessageResponse;
 import cc.nilm.blog.entity.Category;
 import cc.nilm.blog.service.CategoryService;
@@ -22,8 +23,8 @@ public class CategoryController {
     private final CategoryService categoryService;
 
     @GetMapping
-    public ResponseEntity<List<Category>> getAllCategories() {
-        List<Category> categories = categoryService.findAll();
+    public ResponseEntity<List<CategorySummary>> getAllCategories() {
+        List<CategorySummary> categories = categoryService.findSummaries();
         return ResponseEntity.ok(categories);
     }
 
@@ -1,6 +1,8 @@
 package cc.nilm.blog.controller;
 
 import cc.nilm.blog.dto.CommentDto;
+import cc.nilm.blog.dto.CursorPage;
+import cc.nilm.blog.dto.PageCursor;
 import cc.nilm.blog.entity.Comment;
 import cc.nilm.blog.entity.Post;
 import cc.nilm.blog.entity.User;
@@ -44,6 +46,16 @@ public class CommentController {
         return ResponseEntity.ok(comments);
     }
 
+    @GetMapping(value = "/post/{postId}", params = "after")
+    public ResponseEntity<CursorPage<Comment>> getCommentFeedByPost(
+            @PathVariable Long postId,
+            @RequestParam String after,
+            @RequestParam(defaultValue = "20") int size) {
+
+        CursorPage<Comment> comments = commentService.findAllByPostIdAfter(postId, parseCursor(after), Math.max(size, 1));
+        return ResponseEntity.ok(comments);
+    }
+
     @GetMapping("/user/{userId}")
     public ResponseEntity<Page<Comment>> getCommentsByUser(
             @PathVariable Long userId,
@@ -135,4 +147,12 @@ public class CommentController {
         commentService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    private static PageCursor parseCursor(String after) {
+        try {
+            return PageCursor.decode(after);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,76 @@
+package cc.nilm.blog.controller;
+
+import cc.nilm.blog.service.EtagService;
+import cc.nilm.blog.service.feed.FeedFormat;
+import cc.nilm.blog.service.feed.FeedService;
+import cc.nilm.blog.service.feed.RenderedFeed;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * RSS/Atom 訂閱。/feed.xml 位於站台根目錄（Ingress 導到後端），分類與標籤的訂閱在各自的 API 之下。
+ */
+@RestController
+@RequiredArgsConstructor
+@io.swagger.v3.oas.annotations.tags.Tag(name = "訂閱", description = "全站、分類與標籤的 RSS/Atom 訂閱")
+public class FeedController {
+
+    private final FeedService feedService;
+
+    @GetMapping("/feed.xml")
+    @Operation(summary = "全站訂閱", description = "最新發布的文章，預設 Atom，format=RSS 時為 RSS 2.0")
+    public ResponseEntity<byte[]> getSiteFeed(
+            @Parameter(description = "訂閱格式") @RequestParam(defaultValue = "ATOM") FeedFormat format,
+            @RequestHeader HttpHeaders headers) {
+        return respond(feedService.siteFeed(format), headers);
+    }
+
+    @GetMapping("/api/categories/{id}/feed")
+    @Operation(summary = "分類訂閱", description = "指定分類最新發布的文章")
+    public ResponseEntity<byte[]> getCategoryFeed(
+            @PathVariable Long id,
+            @Parameter(description = "訂閱格式") @RequestParam(defaultValue = "ATOM") FeedFormat format,
+            @RequestHeader HttpHeaders headers) {
+        RenderedFeed feed = feedService.categoryFeed(id, format)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Category not found"));
+        return respond(feed, headers);
+    }
+
+    @GetMapping("/api/tags/{id}/feed")
+    @Operation(summary = "標籤訂閱", description = "指定標籤最新發布的文章")
+    public ResponseEntity<byte[]> getTagFeed(
+            @PathVariable Long id,
+            @Parameter(description = "訂閱格式") @RequestParam(defaultValue = "ATOM") FeedFormat format,
+            @RequestHeader HttpHeaders headers) {
+        RenderedFeed feed = feedService.tagFeed(id, format)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Tag not found"));
+        return respond(feed, headers);
+    }
+
+    // 有 If-None-Match 時只比對 ETag，沒有時才看 If-Modified-Since（RFC 9110）
+    private static ResponseEntity<byte[]> respond(RenderedFeed feed, HttpHeaders headers) {
+        long lastModified = feed.lastModified().toEpochMilli();
+        String ifNoneMatch = headers.getFirst(HttpHeaders.IF_NONE_MATCH);
+        boolean notModified = ifNoneMatch != null
+                ? EtagService.matches(ifNoneMatch, feed.etag())
+                : headers.getIfModifiedSince() >= lastModified;
+        if (notModified) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(feed.etag()).lastModified(lastModified)
+                    .cacheControl(CacheControl.noCache()).build();
+        }
+        return ResponseEntity.ok().eTag(feed.etag()).lastModified(lastModified).cacheControl(CacheControl.noCache())
+                .contentType(MediaType.parseMediaType(feed.contentType())).body(feed.body());
+    }
+}
@@ -1,9 +1,24 @@
 package cc.nilm.blog.controller;
 
+import cc.nilm.blog.dto.ArchiveMonth;
+import cc.nilm.blog.dto.AutosaveRequest;
+import cc.nilm.blog.dto.AutosaveResult;
+import cc.nilm.blog.dto.CursorPage;
+import cc.nilm.blog.dto.ImportReport;
+import cc.nilm.blog.dto.PageCursor;
+import cc.nilm.blog.dto.PostCacheStats;
 import cc.nilm.blog.dto.PostDto;
+import cc.nilm.blog.dto.PostRevisionContent;
+import cc.nilm.blog.dto.PostRevisionSummary;
+import cc.nilm.blog.dto.PostSummary;
 import cc.nilm.blog.entity.*;
 import cc.nilm.blog.security.UserDetailsImpl;
 import cc.nilm.blog.service.*;
+import cc.nilm.blog.service.cache.PostCache;
+import cc.nilm.blog.service.imports.ImportFormat;
+import cc.nilm.blog.service.imports.PostExportService;
+import cc.nilm.blog.service.imports.PostImportService;
+import cc.nilm.blog.service.revision.PostRevisionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,20 +27,37 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectRetrievalFailureException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.DateTimeException;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/posts")
@@ -38,14 +70,25 @@ public class PostController {
     private final CategoryService categoryService;
     private final TagService tagService;
     private final CommentService commentService;
+    private final EtagService etagService;
+    private final PostCache postCache;
+    private final PostViewCounter postViewCounter;
+    private final TrendingService trendingService;
+    private final RelatedPostsService relatedPostsService;
+    private final PostRevisionService postRevisionService;
+    private final DraftAutosaveService draftAutosaveService;
+    private final PostImportService postImportService;
+    private final PostExportService postExportService;
+    private final ArchiveService archiveService;
 
     @GetMapping
     @Operation(summary = "獲取所有已發布的文章", description = "分頁獲取所有已發布的文章，可指定排序方式")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "成功獲取文章列表",
-                    content = @Content(schema = @Schema(implementation = Post.class)))
+                    content = @Content(schema = @Schema(implementation = PostSummary.class)))
     })
-    public ResponseEntity<Page<Post>> getAllPosts(
+    public ResponseEntity<Page<PostSummary>> getAllPosts(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
             @Parameter(description = "頁碼，從0開始") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "每頁大小") @RequestParam(defaultValue = "10") int size,
             @Parameter(description = "排序欄位") @RequestParam(defaultValue = "createdAt") String sortBy,
@@ -54,10 +97,68 @@ public class PostController {
         Sort.Direction sortDirection = direction.equalsIgnoreCase("asc") ? Sort.Direction.ASC : Sort.Direction.DESC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
 
-        Page<Post> posts = postService.findPublishedPosts(pageable);
+        return conditionalGet(EtagService.listingKey("published", page, size, sortBy, sortDirection), ifNoneMatch,
+                () -> postService.findPublishedSummaries(pageable), EtagService::etagOf);
+    }
+
+    @GetMapping(params = "after")
+    @Operation(summary = "以游標分頁獲取已發布的文章", description = "依 (createdAt, id) 由新到舊的 keyset 分頁，不計算總筆數；after 帶上一頁的 nextCursor，留空代表第一頁")
+    public ResponseEntity<CursorPage<PostSummary>> getPostFeed(
+            @Parameter(description = "上一頁回傳的 nextCursor，留空代表第一頁") @RequestParam String after,
+            @Parameter(description = "每頁大小") @RequestParam(defaultValue = "10") int size) {
+
+        CursorPage<PostSummary> posts = postService.findPublishedSummariesAfter(parseCursor(after), Math.max(size, 1));
+        return ResponseEntity.ok(posts);
+    }
+
+    @GetMapping("/trending")
+    @Operation(summary = "熱門文章", description = "依瀏覽、評論與發布時間計分並隨時間衰減的排行，由記憶體中的排行直接取得")
+    public ResponseEntity<List<PostSummary>> getTrendingPosts(
+            @Parameter(description = "筆數") @RequestParam(defaultValue = "10") int size) {
+
+        List<PostSummary> posts = postService.findSummariesByIds(trendingService.topPostIds(Math.max(size, 1)));
         return ResponseEntity.ok(posts);
     }
 
+    @GetMapping("/archive")
+    @Operation(summary = "文章彙整", description = "各年月的已發布文章數，由新到舊，由記憶體中的統計直接取得")
+    public ResponseEntity<List<ArchiveMonth>> getArchive() {
+        return ResponseEntity.ok(archiveService.months());
+    }
+
+    @GetMapping("/archive/{year}/{month}")
+    @Operation(summary = "某月的文章", description = "分頁獲取指定年月發布的文章，由新到舊")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "成功獲取文章列表",
+                    content = @Content(schema = @Schema(implementation = PostSummary.class))),
+        @ApiResponse(responseCode = "400", description = "年月無效")
+    })
+    public ResponseEntity<Page<PostSummary>> getArchivedPosts(
+            @Parameter(description = "年", required = true) @PathVariable int year,
+            @Parameter(description = "月（1-12）", required = true) @PathVariable int month,
+            @Parameter(description = "頁碼，從0開始") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "每頁大小") @RequestParam(defaultValue = "10") int size) {
+
+        YearMonth yearMonth;
+        try {
+            yearMonth = YearMonth.of(year, month);
+        } catch (DateTimeException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid month");
+        }
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt", "id"));
+        Page<PostSummary> posts = postService.findPublishedSummariesBetween(
+                yearMonth.atDay(1).atStartOfDay(), yearMonth.plusMonths(1).atDay(1).atStartOfDay(), pageable);
+        return ResponseEntity.ok(posts);
+    }
+
+    @PostMapping("/admin/archive/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "重建文章彙整", description = "管理員專用：從資料庫重新統計各年月的文章數，回傳重建後的結果")
+    public ResponseEntity<List<ArchiveMonth>> rebuildArchive() {
+        archiveService.rebuild();
+        return ResponseEntity.ok(archiveService.months());
+    }
+
     @GetMapping("/admin/all")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "管理員獲取所有文章", description = "管理員專用：分頁獲取所有文章（包括未發布的），可指定排序方式")
@@ -79,23 +180,86 @@ public class PostController {
         return ResponseEntity.ok(posts);
     }
 
+    @GetMapping("/admin/cache-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "文章快取統計", description = "管理員專用：文章詳情快取的命中、未命中與淘汰次數，用於調整快取大小")
+    public ResponseEntity<PostCacheStats> getCacheStats() {
+        return ResponseEntity.ok(postCache.stats());
+    }
+
+    @PostMapping(value = "/admin/import", consumes = "*/*")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "批次匯入文章", description = "管理員專用：請求主體為 JSONL 或內含 Markdown 檔的 zip，" +
+            "未指定作者或作者不存在的文章歸在目前的管理員名下；匯入不記錄修訂歷史")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "匯入完成，回傳筆數與吞吐量",
+                    content = @Content(schema = @Schema(implementation = ImportReport.class))),
+        @ApiResponse(responseCode = "403", description = "沒有管理員權限")
+    })
+    public ResponseEntity<ImportReport> importPosts(
+            @Parameter(description = "匯入檔格式") @RequestParam(defaultValue = "JSONL") ImportFormat format,
+            InputStream body,
+            @AuthenticationPrincipal UserDetailsImpl currentUser) throws IOException {
+        return ResponseEntity.ok(postImportService.importArchive(body, format, currentUser.getUsername()));
+    }
+
+    @GetMapping("/admin/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "匯出全站文章", description = "管理員專用：以 JSON lines 串流匯出所有文章（含草稿、分類、標籤與評論），" +
+            "格式與批次匯入相同；compress=true 時以 gzip 壓縮")
+    public ResponseEntity<StreamingResponseBody> exportPosts(
+            @Parameter(description = "是否以 gzip 壓縮") @RequestParam(defaultValue = "false") boolean compress) {
+        String fileName = "posts-" + LocalDate.now() + (compress ? ".jsonl.gz" : ".jsonl");
+        StreamingResponseBody body = out -> {
+            if (compress) {
+                try (GZIPOutputStream gzip = new GZIPOutputStream(out, 64 * 1024)) {
+                    postExportService.exportArchive(gzip);
+                }
+            } else {
+                postExportService.exportArchive(out);
+            }
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(compress ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
     @GetMapping("/{id}")
-    @Operation(summary = "根據ID獲取文章", description = "獲取指定ID的文章詳細資訊")
+    @Operation(summary = "根據ID獲取文章", description = "獲取指定ID的文章詳細資訊。ETag 不含 viewCount，" +
+            "帶 If-None-Match 取得 304 時沿用的瀏覽次數可能是舊的，直到文章或評論變更")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "成功獲取文章",
                     content = @Content(schema = @Schema(implementation = Post.class))),
+        @ApiResponse(responseCode = "304", description = "文章與評論未變更（瀏覽次數不列入比對）"),
         @ApiResponse(responseCode = "404", description = "文章不存在")
     })
     public ResponseEntity<Post> getPostById(
-            @Parameter(description = "文章ID", required = true) @PathVariable Long id) {
-        Post post = postService.findByIdWithComments(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Post not found"));
-        // FIXME: OneToMany 都是空集合
-        if (post.getComments().isEmpty()) {
-            Page<Comment> commentPage = commentService.findAllByPostId(post.getId(), PageRequest.of(0, 10));
-            if (!commentPage.getContent().isEmpty()) post.setComments(commentPage.toSet());
-        }
-        return ResponseEntity.ok(post);
+            @Parameter(description = "文章ID", required = true) @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        ResponseEntity<Post> response = conditionalGet(EtagService.postKey(id), ifNoneMatch, () -> {
+            Post post = postService.findByIdWithComments(id)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Post not found"));
+            // FIXME: OneToMany 都是空集合
+            if (post.getComments().isEmpty()) {
+                Page<Comment> commentPage = commentService.findAllByPostId(post.getId(), PageRequest.of(0, 10));
+                if (!commentPage.getContent().isEmpty()) post.setComments(commentPage.toSet());
+            }
+            return post;
+        }, EtagService::etagOf);
+        // 文章不存在時上面已回 404；304 也算一次瀏覽
+        postViewCounter.increment(id);
+        return response;
+    }
+
+    @GetMapping("/{id}/related")
+    @Operation(summary = "相關文章", description = "依共同標籤的 Jaccard 相似度排序的已發布文章，由記憶體中的標籤索引直接取得")
+    public ResponseEntity<List<PostSummary>> getRelatedPosts(
+            @Parameter(description = "文章ID", required = true) @PathVariable Long id,
+            @Parameter(description = "筆數") @RequestParam(defaultValue = "5") int size) {
+
+        List<PostSummary> posts = postService.findSummariesByIds(relatedPostsService.relatedPostIds(id, Math.max(size, 1)));
+        return ResponseEntity.ok(posts);
     }
 
     @PostMapping
@@ -118,29 +282,21 @@ public class PostController {
         Post post = new Post();
         post.setTitle(postDto.getTitle());
         post.setContent(postDto.getContent());
-        post.setPublished(postDto.isPublished());
         post.setAuthor(author);
         post.setCreatedAt(LocalDateTime.now());
+        applyPublication(post, postDto);
 
         // 設置分類
         if (postDto.getCategoryId() != null) {
-            Category category = categoryService.findById(postDto.getCategoryId())
-                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Category not found"));
-            post.setCategory(category);
+            post.setCategory(resolveCategory(postDto.getCategoryId()));
         }
 
         // 設置標籤
         if (postDto.getTagIds() != null && !postDto.getTagIds().isEmpty()) {
-            Set<Tag> tags = new HashSet<>();
-            for (Long tagId : postDto.getTagIds()) {
-                Tag tag = tagService.findById(tagId)
-                        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Tag not found"));
-                tags.add(tag);
-            }
-            post.setTags(tags);
+            post.setTags(resolveTags(postDto.getTagIds()));
         }
 
-        Post savedPost = postService.save(post);
+        Post savedPost = saveWithReferences(post, postDto);
         return new ResponseEntity<>(savedPost, HttpStatus.CREATED);
     }
 
@@ -185,35 +341,75 @@ public class PostController {
 
         post.setTitle(postDto.getTitle());
         post.setContent(postDto.getContent());
-        post.setPublished(postDto.isPublished());
         post.setUpdatedAt(LocalDateTime.now());
+        applyPublication(post, postDto);
 
         // 更新分類
-        if (postDto.getCategoryId() != null) {
-            Category category = categoryService.findById(postDto.getCategoryId())
-                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Category not found"));
-            post.setCategory(category);
-        } else {
-            post.setCategory(null);
-        }
+        post.setCategory(postDto.getCategoryId() != null ? resolveCategory(postDto.getCategoryId()) : null);
 
         // 更新標籤
-        if (postDto.getTagIds() != null) {
-            Set<Tag> tags = new HashSet<>();
-            for (Long tagId : postDto.getTagIds()) {
-                Tag tag = tagService.findById(tagId)
-                        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Tag not found"));
-                tags.add(tag);
-            }
-            post.setTags(tags);
-        } else {
-            post.setTags(new HashSet<>());
-        }
+        post.setTags(postDto.getTagIds() != null ? resolveTags(postDto.getTagIds()) : new HashSet<>());
 
-        Post updatedPost = postService.save(post);
+        draftAutosaveService.discard(id);
+        Post updatedPost = saveWithReferences(post, postDto);
         return ResponseEntity.ok(updatedPost);
     }
 
+    @PatchMapping("/{id}/autosave")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    @Operation(summary = "草稿自動儲存", description = "只接受未發布的草稿；更新先緩衝在記憶體，定期寫入最新狀態。回傳接受後的版本號與已寫入的版本號")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "更新已接受"),
+        @ApiResponse(responseCode = "403", description = "沒有權限"),
+        @ApiResponse(responseCode = "404", description = "草稿不存在或已發布")
+    })
+    public ResponseEntity<AutosaveResult> autosaveDraft(
+            @PathVariable Long id,
+            @Valid @RequestBody AutosaveRequest request,
+            @AuthenticationPrincipal UserDetailsImpl currentUser) {
+
+        Long authorId = draftAutosaveService.findDraftAuthorId(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Draft not found"));
+        if (!authorId.equals(currentUser.getId()) &&
+                currentUser.getAuthorities().stream().noneMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(draftAutosaveService.autosave(id, authorId, request.getTitle(), request.getContent()));
+    }
+
+    @GetMapping("/{id}/revisions")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    @Operation(summary = "文章修訂紀錄", description = "列出文章的所有版本（新到舊），只有作者或管理員可以查看")
+    public ResponseEntity<List<PostRevisionSummary>> getPostRevisions(
+            @PathVariable Long id,
+            @AuthenticationPrincipal UserDetailsImpl currentUser) {
+
+        Post post = postService.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Post not found"));
+        if (!canEdit(post, currentUser)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(postRevisionService.findRevisions(id));
+    }
+
+    @GetMapping("/{id}/revisions/{revision}")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    @Operation(summary = "還原文章版本", description = "取得指定版本的標題與內文，只有作者或管理員可以查看")
+    public ResponseEntity<PostRevisionContent> getPostRevision(
+            @PathVariable Long id,
+            @PathVariable int revision,
+            @AuthenticationPrincipal UserDetailsImpl currentUser) {
+
+        Post post = postService.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Post not found"));
+        if (!canEdit(post, currentUser)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return postRevisionService.reconstruct(id, revision)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Revision not found"));
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<?> deletePost(
@@ -229,58 +425,163 @@ public class PostController {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
+        draftAutosaveService.discard(id);
         postService.delete(id);
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<Page<Post>> getPostsByUser(
+    public ResponseEntity<Page<PostSummary>> getPostsByUser(
             @PathVariable Long userId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-
-        User user = userService.findById(userId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+            @RequestParam(defaultValue = "10") int size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<Post> posts = postService.findByAuthor(user, pageable);
-
-        return ResponseEntity.ok(posts);
+        return conditionalGet(EtagService.listingKey("user", userId, page, size), ifNoneMatch, () -> {
+            User user = userService.findById(userId)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+            return postService.findSummariesByAuthorId(user.getId(), pageable);
+        }, EtagService::etagOf);
     }
 
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<Page<Post>> getPostsByCategory(
+    public ResponseEntity<Page<PostSummary>> getPostsByCategory(
             @PathVariable Long categoryId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<Post> posts = postService.findByCategoryId(categoryId, pageable);
+        return conditionalGet(EtagService.listingKey("category", categoryId, page, size), ifNoneMatch,
+                () -> postService.findSummariesByCategoryId(categoryId, pageable), EtagService::etagOf);
+    }
 
+    @GetMapping(value = "/category/{categoryId}", params = "after")
+    public ResponseEntity<CursorPage<PostSummary>> getPostFeedByCategory(
+            @PathVariable Long categoryId,
+            @RequestParam String after,
+            @RequestParam(defaultValue = "10") int size) {
+
+        CursorPage<PostSummary> posts = postService.findSummariesByCategoryIdAfter(categoryId, parseCursor(after), Math.max(size, 1));
         return ResponseEntity.ok(posts);
     }
 
     @GetMapping("/tag/{tagId}")
-    public ResponseEntity<Page<Post>> getPostsByTag(
+    public ResponseEntity<Page<PostSummary>> getPostsByTag(
             @PathVariable Long tagId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<Post> posts = postService.findByTagId(tagId, pageable);
+        return conditionalGet(EtagService.listingKey("tag", tagId, page, size), ifNoneMatch,
+                () -> postService.findSummariesByTagId(tagId, pageable), EtagService::etagOf);
+    }
 
+    @GetMapping(value = "/tag/{tagId}", params = "after")
+    public ResponseEntity<CursorPage<PostSummary>> getPostFeedByTag(
+            @PathVariable Long tagId,
+            @RequestParam String after,
+            @RequestParam(defaultValue = "10") int size) {
+
+        CursorPage<PostSummary> posts = postService.findSummariesByTagIdAfter(tagId, parseCursor(after), Math.max(size, 1));
         return ResponseEntity.ok(posts);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Page<Post>> searchPosts(
+    @Operation(summary = "全文搜尋已發布的文章", description = "依相關度排序，highlight 為以 <mark> 標示命中關鍵字的片段（已跳脫，只含 <mark> 標籤），excerpt 維持原摘要")
+    public ResponseEntity<Page<PostSummary>> searchPosts(
             @RequestParam String query,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<Post> posts = postService.searchPosts(query, pageable);
+        // 排序由搜尋引擎依相關度決定
+        Pageable pageable = PageRequest.of(page, size);
+        Page<PostSummary> posts = postService.searchPosts(query, pageable);
 
         return ResponseEntity.ok(posts);
     }
+
+    // 本機記得的 ETag 與 If-None-Match 相符時直接回 304，不查詢也不序列化；否則查詢後以內容計算 ETag
+    private <T> ResponseEntity<T> conditionalGet(String key, String ifNoneMatch,
+                                                 Supplier<T> loader, Function<T, String> etagOf) {
+        String known = etagService.knownEtag(key);
+        if (known != null && EtagService.matches(ifNoneMatch, known)) {
+            return notModified(known);
+        }
+
+        long version = etagService.currentVersion();
+        T body = loader.get();
+        String etag = etagOf.apply(body);
+        etagService.remember(key, etag, version);
+        if (EtagService.matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(body);
+    }
+
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+    }
+
+    // 分類與標籤經由參照快取解析，命中時不查資料庫；標籤未命中的部分一次批次查詢
+    private Category resolveCategory(Long categoryId) {
+        return categoryService.findReference(categoryId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Category not found"));
+    }
+
+    private Set<Tag> resolveTags(Set<Long> tagIds) {
+        Map<Long, Tag> found = tagService.findReferences(tagIds);
+        if (found.size() < tagIds.size()) {
+            Set<Long> missing = new TreeSet<>(tagIds);
+            missing.removeAll(found.keySet());
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Tag not found: " + missing);
+        }
+        return new HashSet<>(found.values());
+    }
+
+    // 快取中已知存在的分類或標籤可能已在其他副本刪除：更新時 merge 找不到代理參照，新增時寫入撞到外鍵。
+    // 此時清掉這些 ID 並重新查資料庫確認，不存在的回 404，都還在則照原本的錯誤拋出
+    private Post saveWithReferences(Post post, PostDto postDto) {
+        try {
+            return postService.save(post);
+        } catch (DataIntegrityViolationException | ObjectRetrievalFailureException ex) {
+            if (postDto.getCategoryId() != null) {
+                categoryService.evictReference(postDto.getCategoryId());
+                resolveCategory(postDto.getCategoryId());
+            }
+            if (postDto.getTagIds() != null && !postDto.getTagIds().isEmpty()) {
+                tagService.evictReferences(postDto.getTagIds());
+                resolveTags(postDto.getTagIds());
+            }
+            throw ex;
+        }
+    }
+
+    // 排程時間在未來時文章先保持未發布，由 PublicationScheduler 到期發布；否則照 published 並清掉排程
+    private static void applyPublication(Post post, PostDto postDto) {
+        LocalDateTime publishAt = postDto.getPublishAt();
+        if (publishAt != null && publishAt.isAfter(LocalDateTime.now())) {
+            post.setPublished(false);
+            post.setPublishAt(publishAt);
+        } else {
+            post.setPublished(postDto.isPublished());
+            post.setPublishAt(null);
+        }
+    }
+
+    // 與編輯、刪除相同的規則：作者本人或管理員
+    private static boolean canEdit(Post post, UserDetailsImpl currentUser) {
+        return post.getAuthor().getId().equals(currentUser.getId()) ||
+                currentUser.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+    }
+
+    private static PageCursor parseCursor(String after) {
+        try {
+            return PageCursor.decode(after);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,56 @@
+package cc.nilm.blog.controller;
+
+import cc.nilm.blog.service.sitemap.SitemapService;
+import cc.nilm.blog.service.sitemap.StoredSitemap;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+/**
+ * 站台根目錄的 sitemap（Ingress 把 /sitemap.xml 與 /sitemaps/ 導到後端）。
+ */
+@RestController
+@RequiredArgsConstructor
+@io.swagger.v3.oas.annotations.tags.Tag(name = "Sitemap", description = "搜尋引擎用的 sitemap 索引與分片")
+public class SitemapController {
+
+    private final SitemapService sitemapService;
+
+    @GetMapping(value = "/sitemap.xml", produces = MediaType.APPLICATION_XML_VALUE)
+    @Operation(summary = "sitemap 索引", description = "列出所有分片與各自的最後修改時間")
+    public ResponseEntity<byte[]> getIndex(@RequestHeader HttpHeaders headers) {
+        return respond(sitemapService.index(), headers);
+    }
+
+    @GetMapping(value = "/sitemaps/{shard}.xml", produces = MediaType.APPLICATION_XML_VALUE)
+    @Operation(summary = "sitemap 分片", description = "依文章 ID 區間分片，每片最多 50,000 篇已發布文章")
+    public ResponseEntity<byte[]> getShard(
+            @Parameter(description = "分片編號，從 0 開始") @PathVariable int shard,
+            @RequestHeader HttpHeaders headers) {
+        StoredSitemap sitemap = sitemapService.shard(shard)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Sitemap not found"));
+        return respond(sitemap, headers);
+    }
+
+    // Last-Modified 只到秒；If-Modified-Since 不早於它時回 304
+    private static ResponseEntity<byte[]> respond(StoredSitemap sitemap, HttpHeaders headers) {
+        long lastModified = sitemap.lastModified().getEpochSecond() * 1000;
+        CacheControl cacheControl = CacheControl.maxAge(Duration.ofHours(1)).cachePublic();
+        if (headers.getIfModifiedSince() >= lastModified) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).lastModified(lastModified).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().lastModified(lastModified).cacheControl(cacheControl).body(sitemap.xml());
+    }
+}
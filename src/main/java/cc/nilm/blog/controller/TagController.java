@@ -1,11 +1,16 @@
 package cc.nilm.blog.controller;
 
 import cc.nilm.blog.dto.MessageResponse;
+import cc.nilm.blog.dto.TagCloudEntry;
 import cc.nilm.blog.dto.TagDto;
 import cc.nilm.blog.entity.Tag;
+import cc.nilm.blog.service.EtagService;
+import cc.nilm.blog.service.TagCloudService;
 import cc.nilm.blog.service.TagService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -20,6 +25,7 @@ import java.util.List;
 public class TagController {
 
     private final TagService tagService;
+    private final TagCloudService tagCloudService;
 
     @GetMapping
     public ResponseEntity<List<Tag>> getAllTags() {
@@ -27,6 +33,23 @@ public class TagController {
         return ResponseEntity.ok(tags);
     }
 
+    @GetMapping("/cloud")
+    public ResponseEntity<List<TagCloudEntry>> getTagCloud(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        TagCloudService.TagCloud cloud = tagCloudService.cloud();
+        if (EtagService.matches(ifNoneMatch, cloud.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(cloud.etag()).cacheControl(CacheControl.noCache()).build();
+        }
+        return ResponseEntity.ok().eTag(cloud.etag()).cacheControl(CacheControl.noCache()).body(cloud.tags());
+    }
+
+    @PostMapping("/admin/recount")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<TagCloudEntry>> recountTags() {
+        tagCloudService.recount();
+        return ResponseEntity.ok(tagCloudService.cloud().tags());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Tag> getTagById(@PathVariable Long id) {
         Tag tag = tagService.findById(id)
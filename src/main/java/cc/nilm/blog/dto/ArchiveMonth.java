@@ -0,0 +1,20 @@
+package cc.nilm.blog.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@Schema(description = "文章彙整：某年某月的已發布文章數")
+public class ArchiveMonth {
+
+    @Schema(description = "年", example = "2025")
+    private int year;
+
+    @Schema(description = "月（1-12）", example = "6")
+    private int month;
+
+    @Schema(description = "文章數", example = "4")
+    private int count;
+}
@@ -0,0 +1,17 @@
+package cc.nilm.blog.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+@Schema(description = "草稿自動儲存的部分更新，未提供的欄位維持不變")
+public class AutosaveRequest {
+
+    @Size(min = 1, max = 100)
+    @Schema(description = "文章標題", example = "Spring Boot 教程")
+    private String title;
+
+    @Schema(description = "文章內容（Markdown）", example = "這是一篇關於Spring Boot的教程...")
+    private String content;
+}
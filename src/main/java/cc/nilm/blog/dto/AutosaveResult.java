@@ -0,0 +1,17 @@
+package cc.nilm.blog.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@Schema(description = "自動儲存結果")
+public class AutosaveResult {
+
+    @Schema(description = "這次更新被接受後的版本號", example = "12")
+    private long version;
+
+    @Schema(description = "已寫入資料庫的最新版本號；等於 version 表示已全部寫入", example = "10")
+    private long savedVersion;
+}
@@ -0,0 +1,25 @@
+package cc.nilm.blog.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "分類摘要（列表用，以已發布文章數代替文章集合）")
+public class CategorySummary {
+
+    @Schema(description = "分類ID", example = "1")
+    private Long id;
+
+    @Schema(description = "分類名稱", example = "技術")
+    private String name;
+
+    @Schema(description = "分類描述", example = "程式設計與軟體開發")
+    private String description;
+
+    @Schema(description = "已發布文章數", example = "12")
+    private long postCount;
+}
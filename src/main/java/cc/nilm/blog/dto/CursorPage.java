@@ -0,0 +1,33 @@
+package cc.nilm.blog.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Data
+@AllArgsConstructor
+@Schema(description = "游標分頁結果（不計算總筆數）")
+public class CursorPage<T> {
+
+    @Schema(description = "本頁資料")
+    private List<T> content;
+
+    @Schema(description = "下一頁游標，沒有下一頁時為 null")
+    private String nextCursor;
+
+    @Schema(description = "是否還有下一頁")
+    private boolean hasNext;
+
+    /**
+     * 由多查一筆（size + 1）的結果建立分頁：多出的那筆只用來判斷是否有下一頁。
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, PageCursor> cursorOf) {
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(content.get(content.size() - 1)).encode() : null;
+        return new CursorPage<>(content, nextCursor, hasNext);
+    }
+}
@@ -0,0 +1,42 @@
+package cc.nilm.blog.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "批次匯入結果")
+public class ImportReport {
+
+    @Schema(description = "寫入的文章數", example = "12000")
+    private long posts;
+
+    @Schema(description = "寫入的評論數", example = "35000")
+    private long comments;
+
+    @Schema(description = "格式錯誤或缺少作者、標題而略過的文章數", example = "3")
+    private long skipped;
+
+    @Schema(description = "新建立的分類數", example = "8")
+    private long categoriesCreated;
+
+    @Schema(description = "新建立的標籤數", example = "150")
+    private long tagsCreated;
+
+    @Schema(description = "關聯與評論的寫入方式：copy（PostgreSQL COPY）或 batch（JDBC 批次）", example = "copy")
+    private String mode;
+
+    @Schema(description = "總耗時（毫秒），含 Markdown 渲染", example = "5400")
+    private long elapsedMillis;
+
+    @Schema(description = "每秒寫入的文章數", example = "2222.2")
+    private double postsPerSecond;
+
+    @Schema(description = "前幾筆錯誤訊息")
+    private List<String> errors;
+}
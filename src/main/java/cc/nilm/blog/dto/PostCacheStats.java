@@ -0,0 +1,20 @@
+package cc.nilm.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 文章快取的統計：第一層的筆數、命中、未命中與淘汰次數，以及第二層的命中情形。
+ */
+@Data
+@AllArgsConstructor
+public class PostCacheStats {
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private double hitRate;
+    private boolean secondTierEnabled;
+    private long secondTierHitCount;
+    private long secondTierMissCount;
+}
@@ -5,6 +5,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
 
+import java.time.LocalDateTime;
 import java.util.Set;
 
 @Data
@@ -23,6 +24,9 @@ public class PostDto {
     @Schema(description = "是否發布", example = "true", defaultValue = "false")
     private boolean published;
 
+    @Schema(description = "排程發布時間；晚於現在時文章先保持未發布，到時自動發布", example = "2025-06-01T09:00:00")
+    private LocalDateTime publishAt;
+
     @Schema(description = "分類ID", example = "1")
     private Long categoryId;
 
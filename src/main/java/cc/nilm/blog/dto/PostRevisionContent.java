@@ -0,0 +1,27 @@
+package cc.nilm.blog.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "還原後的文章修訂版本")
+public class PostRevisionContent {
+
+    @Schema(description = "版本號", example = "3")
+    private int revision;
+
+    @Schema(description = "該版本的標題", example = "Spring Boot 入門")
+    private String title;
+
+    @Schema(description = "該版本的 Markdown 內文")
+    private String content;
+
+    @Schema(description = "儲存時間", example = "2025-05-15T08:15:00")
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,30 @@
+package cc.nilm.blog.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "文章修訂版本（列表用，不含內文）")
+public class PostRevisionSummary {
+
+    @Schema(description = "版本號，從 1 開始", example = "3")
+    private int revision;
+
+    @Schema(description = "該版本的標題", example = "Spring Boot 入門")
+    private String title;
+
+    @Schema(description = "是否以完整內文儲存", example = "false")
+    private boolean snapshot;
+
+    @Schema(description = "該版本內文的字數", example = "1024")
+    private int contentLength;
+
+    @Schema(description = "儲存時間", example = "2025-05-15T08:15:00")
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,16 @@
+package cc.nilm.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 搜尋引擎回傳的單筆命中：文章ID、摘錄片段與相關度分數。
+ * 片段為已跳脫的 HTML，只含標示命中處的 {@code <mark>}。
+ */
+@Data
+@AllArgsConstructor
+public class PostSearchHit {
+    private Long postId;
+    private String snippet;
+    private double score;
+}
@@ -0,0 +1,79 @@
+package cc.nilm.blog.dto;
+
+import cc.nilm.blog.entity.Tag;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "文章摘要（列表用，不含全文與評論）")
+public class PostSummary {
+
+    // 摘要截取的字數，需與 PostRepository 中的 SUBSTRING 長度一致
+    public static final int EXCERPT_LENGTH = 200;
+
+    @Schema(description = "文章ID", example = "1")
+    private Long id;
+
+    @Schema(description = "文章標題", example = "Spring Boot 入門")
+    private String title;
+
+    @Schema(description = "文章摘要", example = "這篇文章介紹了Spring Boot的基本概念...")
+    private String excerpt;
+
+    @Schema(description = "搜尋命中片段：已跳脫的 HTML，只以 <mark> 標示命中處；只有搜尋結果有此欄位",
+            example = "介紹 <mark>Spring</mark> Boot 的自動設定…")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String highlight;
+
+    @Schema(description = "作者ID", example = "1")
+    private Long authorId;
+
+    @Schema(description = "作者名稱", example = "System Admin")
+    private String authorName;
+
+    @Schema(description = "分類")
+    private CategoryRef category;
+
+    @Schema(description = "文章標籤")
+    private List<Tag> tags = new ArrayList<>();
+
+    @Schema(description = "創建時間", example = "2025-05-14T10:30:00")
+    private LocalDateTime createdAt;
+
+    @Schema(description = "評論數量", example = "3")
+    private long commentCount;
+
+    @Schema(description = "瀏覽次數", example = "42")
+    private long viewCount;
+
+    // 供 JPQL constructor expression 使用
+    public PostSummary(Long id, String title, String excerpt, Long authorId, String authorName,
+                       Long categoryId, String categoryName, LocalDateTime createdAt, Long commentCount, Long viewCount) {
+        this.id = id;
+        this.title = title;
+        this.excerpt = excerpt;
+        this.authorId = authorId;
+        this.authorName = authorName;
+        this.category = categoryId != null ? new CategoryRef(categoryId, categoryName) : null;
+        this.createdAt = createdAt;
+        this.commentCount = commentCount != null ? commentCount : 0L;
+        this.viewCount = viewCount != null ? viewCount : 0L;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "分類參考")
+    public static class CategoryRef {
+        private Long id;
+        private String name;
+    }
+}
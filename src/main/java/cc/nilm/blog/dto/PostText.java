@@ -0,0 +1,13 @@
+package cc.nilm.blog.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 建立搜尋索引用的精簡投影，只取標題、內文與建立時間。
+ */
+public interface PostText {
+    Long getId();
+    String getTitle();
+    String getContent();
+    LocalDateTime getCreatedAt();
+}
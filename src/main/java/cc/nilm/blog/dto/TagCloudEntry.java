@@ -0,0 +1,25 @@
+package cc.nilm.blog.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "標籤雲項目：標籤與已發布文章數")
+public class TagCloudEntry {
+
+    @Schema(description = "標籤ID", example = "1")
+    private Long id;
+
+    @Schema(description = "標籤名稱", example = "Java")
+    private String name;
+
+    @Schema(description = "標籤顏色", example = "#1976D2")
+    private String color;
+
+    @Schema(description = "已發布文章數", example = "12")
+    private long postCount;
+}
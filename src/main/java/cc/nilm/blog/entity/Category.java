@@ -1,11 +1,12 @@
 package cc.nilm.blog.entity;
 
-import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.HashSet;
 import java.util.Objects;
@@ -16,11 +17,13 @@ import java.util.Set;
 @AllArgsConstructor
 @Entity
 @Table(name = "categories")
+@BatchSize(size = 50)
 @ToString(exclude = {"posts"})
 public class Category {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "categories_seq")
+    @SequenceGenerator(name = "categories_seq", sequenceName = "categories_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -28,8 +31,10 @@ public class Category {
 
     private String description;
 
-    @JsonManagedReference
-    @OneToMany(mappedBy = "category", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    // 延遲載入且不輸出 JSON：列表改用 CategorySummary 的文章數，分類下的文章由文章 API 分頁取得
+    @JsonIgnore
+    @OneToMany(mappedBy = "category", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     private Set<Post> posts = new HashSet<>();
 
     @Override
@@ -0,0 +1,85 @@
+package cc.nilm.blog.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 大型文字欄位的壓縮儲存：超過門檻的值以 gzip 壓縮後 Base64 編碼，加上 {@link #PREFIX} 存回同一個 TEXT 欄位。
+ * <p>
+ * 預設關閉（{@code app.posts.compression.enabled}），開啟後只影響之後寫入的值；讀取時一律依前綴判斷，
+ * 因此新舊格式可以並存，關閉後也讀得回已壓縮的資料，不需要搬移既有資料。
+ * 壓縮後沒有變小的值維持原樣。由 Hibernate 透過 Spring 的 bean container 建立，以取得設定值。
+ */
+@Converter
+public class CompressedTextConverter implements AttributeConverter<String, String> {
+
+    static final String PREFIX = "gz1:";
+
+    private final boolean enabled;
+    private final int thresholdBytes;
+
+    // 不經 Spring 建立時（例如單純的 Hibernate 工具）只解壓縮、不壓縮
+    public CompressedTextConverter() {
+        this(false, DataSize.ofKilobytes(8));
+    }
+
+    @Autowired
+    public CompressedTextConverter(@Value("${app.posts.compression.enabled:false}") boolean enabled,
+                                   @Value("${app.posts.compression.threshold:8KB}") DataSize threshold) {
+        this.enabled = enabled;
+        this.thresholdBytes = (int) threshold.toBytes();
+    }
+
+    @Override
+    public String convertToDatabaseColumn(String value) {
+        if (value == null) return null;
+        // 原文剛好以前綴開頭時必須編碼，否則讀取時會被誤認為壓縮資料
+        boolean ambiguous = value.startsWith(PREFIX);
+        // 每個 UTF-16 字元編成 UTF-8 最多 3 bytes，確定低於門檻時不必先編碼
+        if (!ambiguous && (!enabled || (long) value.length() * 3 < thresholdBytes)) return value;
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (!ambiguous && bytes.length < thresholdBytes) return value;
+
+        // 壓縮結果只含 ASCII，字元數即為儲存的 byte 數
+        String compressed = PREFIX + Base64.getEncoder().encodeToString(gzip(bytes));
+        return ambiguous || compressed.length() < bytes.length ? compressed : value;
+    }
+
+    @Override
+    public String convertToEntityAttribute(String stored) {
+        if (stored == null || !stored.startsWith(PREFIX)) return stored;
+        byte[] bytes = Base64.getDecoder().decode(stored.substring(PREFIX.length()));
+        return new String(gunzip(bytes), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] bytes) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return gzip.readAllBytes();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package cc.nilm.blog.entity;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
@@ -8,9 +9,15 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.LazyGroup;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
@@ -18,13 +25,19 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+        @Index(name = "idx_posts_published_created", columnList = "published, created_at, id"),
+        @Index(name = "idx_posts_category_created", columnList = "category_id, created_at, id"),
+        @Index(name = "idx_posts_publish_at", columnList = "publish_at")
+})
 @Schema(description = "文章實體")
-@ToString(exclude = {"tags", "comments"})
+@ToString(exclude = {"tags", "comments", "contentHtml", "toc"})
 public class Post {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // 序列主鍵（pooled，一次向資料庫保留 50 個）才能讓 Hibernate 批次 INSERT；IDENTITY 必須逐筆寫入取回 ID
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "posts_seq")
+    @SequenceGenerator(name = "posts_seq", sequenceName = "posts_seq", allocationSize = 50)
     @Schema(description = "文章ID", example = "1")
     private Long id;
 
@@ -32,10 +45,41 @@ public class Post {
     @Schema(description = "文章標題", example = "Spring Boot 入門")
     private String title;
 
+    // 內文與渲染結果屬於延遲載入的 body 群組：列表、分類等查詢不讀這些大欄位，
+    // 第一次存取其中任一欄位時才一起載入（需 hibernate-enhance-maven-plugin 的 lazy initialization）
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("body")
     @Column(nullable = false, columnDefinition = "TEXT")
     @Schema(description = "文章內容", example = "這篇文章介紹了Spring Boot的基本概念和使用方法...")
     private String content;
 
+    // 以下由 PostRenderingService 在儲存時依 content 產生
+    // 與內文同樣大小但不參與任何 SQL 查詢，開啟 app.posts.compression 時以壓縮格式儲存
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("body")
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(columnDefinition = "TEXT")
+    @Schema(description = "伺服器端渲染並清理過的 HTML")
+    private String contentHtml;
+
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("body")
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Schema(description = "目錄")
+    private List<TocEntry> toc;
+
+    @Schema(description = "預估閱讀時間（分鐘）", example = "5")
+    private Integer readingTimeMinutes;
+
+    @Column(columnDefinition = "TEXT")
+    @Schema(description = "純文字摘要", example = "這篇文章介紹了Spring Boot的基本概念...")
+    private String excerpt;
+
+    // 產生上述欄位時 content 的 SHA-256，內容相同時不重新渲染
+    @JsonIgnore
+    @Column(length = 64)
+    private String contentHash;
+
     @Column(nullable = false)
     @Schema(description = "創建時間", example = "2025-05-14T10:30:00")
     private LocalDateTime createdAt = LocalDateTime.now();
@@ -47,6 +91,16 @@ public class Post {
     @Schema(description = "是否發布", example = "true")
     private boolean published = false;
 
+    // 排程發布時間；到期由 PublicationScheduler 發布並清空，發布時間同時成為 createdAt
+    @Schema(description = "排程發布時間，僅未發布的文章有值", example = "2025-06-01T09:00:00")
+    private LocalDateTime publishAt;
+
+    // 由 PostViewCounter 批次累加，不隨文章儲存寫回，避免覆蓋其他副本寫入的次數
+    @Column(nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    @Schema(description = "瀏覽次數（已寫入資料庫的部分，不列入 ETag）", example = "42")
+    private long viewCount;
+
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "user_id", nullable = false)
     @Schema(description = "文章作者")
@@ -67,10 +121,12 @@ public class Post {
             inverseJoinColumns = @JoinColumn(name = "tag_id")
     )
     @Schema(description = "文章標籤")
+    @BatchSize(size = 50)
     private Set<Tag> tags = new HashSet<>();
 
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, orphanRemoval = true)
     @Schema(description = "文章評論")
+    @BatchSize(size = 50)
     private Set<Comment> comments = new HashSet<>();
 
     @Override
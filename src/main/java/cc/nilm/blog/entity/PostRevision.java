@@ -0,0 +1,58 @@
+package cc.nilm.blog.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * 文章的一個修訂版本。
+ * <p>
+ * 最新版本與每 {@code SNAPSHOT_INTERVAL} 個版本存完整內文（snapshot），其餘只存「由下一版還原成本版」的反向差異，
+ * 格式見 {@link cc.nilm.blog.service.revision.LineDelta}。
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "post_revisions", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_post_revisions_post_revision", columnNames = {"post_id", "revision"})
+})
+@ToString(exclude = "data")
+public class PostRevision {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "post_revisions_seq")
+    @SequenceGenerator(name = "post_revisions_seq", sequenceName = "post_revisions_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "post_id", nullable = false)
+    private Long postId;
+
+    @Column(nullable = false)
+    private int revision;
+
+    @Column(nullable = false)
+    private String title;
+
+    // true 時 data 為完整內文，否則為反向差異
+    @Column(nullable = false)
+    private boolean snapshot;
+
+    @Basic(fetch = FetchType.LAZY)
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String data;
+
+    @Column(nullable = false)
+    private int contentLength;
+
+    // 與 Post.contentHash 相同算法，用來判斷內文是否與上一版相同
+    @Column(length = 64)
+    private String contentHash;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
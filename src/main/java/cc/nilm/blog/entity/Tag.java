@@ -1,19 +1,24 @@
 package cc.nilm.blog.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.util.Objects;
 
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 @Entity
 @Table(name = "tags")
+@BatchSize(size = 50)
 public class Tag {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tags_seq")
+    @SequenceGenerator(name = "tags_seq", sequenceName = "tags_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -22,4 +27,30 @@ public class Tag {
     @Column(length = 20)
     private String color;
 
+    // 已發布文章數，供標籤雲使用。由 TagService 在文章儲存、刪除的同一交易內以 UPDATE 增減，
+    // 不隨標籤儲存寫回；不輸出 JSON，快取的文章快照裡沒有這個值
+    @JsonIgnore
+    @Column(nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private long postCount;
+
+    public Tag(Long id, String name, String color) {
+        this.id = id;
+        this.name = name;
+        this.color = color;
+    }
+
+    @Override
+    public int hashCode() {
+        // 只用 ID：TagService 回傳的代理參照放進集合時不會因此載入整個標籤
+        return Objects.hashCode(id);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        Tag other = (Tag) obj;
+        return id != null && id.equals(other.id);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package cc.nilm.blog.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 文章目錄的一個項目，以 JSON 存在 posts.toc。
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "目錄項目")
+public class TocEntry implements Serializable {
+
+    @Schema(description = "標題層級（1-6）", example = "2")
+    private int level;
+
+    @Schema(description = "標題元素的 id，可用於錨點", example = "安裝步驟")
+    private String id;
+
+    @Schema(description = "標題文字", example = "安裝步驟")
+    private String text;
+}
@@ -0,0 +1,43 @@
+package cc.nilm.blog.event;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * CommentService 儲存或刪除評論時發布的事件，帶有所屬文章的 ID。
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class CommentChangedEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Long commentId;
+    private final Long postId;
+
+    public static CommentChangedEvent created(Long commentId, Long postId) {
+        return new CommentChangedEvent(Type.CREATED, commentId, postId);
+    }
+
+    public static CommentChangedEvent updated(Long commentId, Long postId) {
+        return new CommentChangedEvent(Type.UPDATED, commentId, postId);
+    }
+
+    public static CommentChangedEvent deleted(Long commentId, Long postId) {
+        return new CommentChangedEvent(Type.DELETED, commentId, postId);
+    }
+
+    public boolean isCreated() {
+        return type == Type.CREATED;
+    }
+
+    public boolean isDeleted() {
+        return type == Type.DELETED;
+    }
+}
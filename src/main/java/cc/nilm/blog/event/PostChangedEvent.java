@@ -0,0 +1,38 @@
+package cc.nilm.blog.event;
+
+import cc.nilm.blog.entity.Post;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * PostService 儲存或刪除文章時發布的事件。
+ * 記憶體中的索引、快取等以 @TransactionalEventListener 在交易提交後更新自己的狀態。
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class PostChangedEvent {
+
+    public enum Type {
+        SAVED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Long postId;
+
+    // SAVED 時為儲存後的文章；DELETED 時為 null
+    private final Post post;
+
+    public static PostChangedEvent saved(Post post) {
+        return new PostChangedEvent(Type.SAVED, post.getId(), post);
+    }
+
+    public static PostChangedEvent deleted(Long postId) {
+        return new PostChangedEvent(Type.DELETED, postId, null);
+    }
+
+    public boolean isDeleted() {
+        return type == Type.DELETED;
+    }
+}
@@ -0,0 +1,18 @@
+package cc.nilm.blog.event;
+
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * PostViewCounter 成功寫回一批瀏覽次數後發布的事件，內容為本副本這一輪各文章新增的次數。
+ */
+@Getter
+public class PostViewsFlushedEvent {
+
+    private final Map<Long, Long> views;
+
+    public PostViewsFlushedEvent(Map<Long, Long> views) {
+        this.views = Map.copyOf(views);
+    }
+}
@@ -0,0 +1,15 @@
+package cc.nilm.blog.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 批次匯入完成後發布。匯入繞過 PostService，不會逐篇發布 {@link PostChangedEvent}，
+ * 記憶體中的索引與排行改為收到此事件後整批重建。
+ */
+@Getter
+@AllArgsConstructor
+public class PostsImportedEvent {
+
+    private final int postCount;
+}
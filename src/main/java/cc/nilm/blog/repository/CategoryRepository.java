@@ -1,12 +1,26 @@
 package cc.nilm.blog.repository;
 
+import cc.nilm.blog.dto.CategorySummary;
 import cc.nilm.blog.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     Optional<Category> findByName(String name);
     Boolean existsByName(String name);
+
+    // 分類列表：一次查詢帶出各分類的已發布文章數，不載入文章
+    @Query("SELECT new cc.nilm.blog.dto.CategorySummary(c.id, c.name, c.description, COUNT(p)) " +
+            "FROM Category c LEFT JOIN Post p ON p.category = c AND p.published = true " +
+            "GROUP BY c.id, c.name, c.description ORDER BY c.id")
+    List<CategorySummary> findSummaries();
+
+    // 只取名稱，不載入其他關聯
+    @Query("SELECT x.name FROM Category x WHERE x.id = :id")
+    Optional<String> findNameById(Long id);
 }
\ No newline at end of file
@@ -1,13 +1,37 @@
 package cc.nilm.blog.repository;
 
 import cc.nilm.blog.entity.Comment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     Page<Comment> findAllByPostId(Long postId, Pageable pageable);
     Page<Comment> findAllByAuthorId(Long userId, Pageable pageable);
+
+    // Keyset 分頁：以 (createdAt, id) 由新到舊定位
+    @Query("SELECT c FROM Comment c WHERE c.post.id = :postId ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findByPostIdFirst(Long postId, Limit limit);
+
+    @Query("SELECT c FROM Comment c WHERE c.post.id = :postId " +
+            "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findByPostIdAfter(Long postId, LocalDateTime createdAt, Long id, Limit limit);
+
+    // 熱門排行重建用，回傳已發布文章在指定時間後的評論 [postId, createdAt]
+    @Query("SELECT c.post.id, c.createdAt FROM Comment c WHERE c.post.published = true AND c.createdAt >= :since")
+    List<Object[]> findPublishedCommentTimesSince(LocalDateTime since);
+
+    // 匯出用，回傳 [postId, username, content, createdAt]，同一篇文章依時間先後
+    @Query("SELECT c.post.id, a.username, c.content, c.createdAt FROM Comment c JOIN c.author a " +
+            "WHERE c.post.id IN :postIds ORDER BY c.post.id, c.createdAt, c.id")
+    List<Object[]> findExportRowsByPostIds(Collection<Long> postIds);
 }
\ No newline at end of file
@@ -1,23 +1,176 @@
 package cc.nilm.blog.repository;
 
+import cc.nilm.blog.dto.PostSummary;
+import cc.nilm.blog.dto.PostText;
 import cc.nilm.blog.entity.Post;
 import cc.nilm.blog.entity.User;
+import cc.nilm.blog.service.feed.FeedEntry;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_FLUSH_MODE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
+    // 分頁查詢一併 join 作者與分類；tags、comments 等集合交給 @BatchSize 以 IN 批次載入，
+    // 不在分頁查詢裡 fetch 集合，避免 Hibernate 退回記憶體分頁
+    @EntityGraph(attributePaths = {"author", "category"})
     Page<Post> findByPublishedTrue(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"author", "category"})
     Page<Post> findByAuthor(User author, Pageable pageable);
-    Page<Post> findByTitleContainingOrContentContaining(String title, String content, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"author", "category"})
     Page<Post> findByCategoryId(Long categoryId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"author", "category"})
     Page<Post> findByTagsId(Long tagId, Pageable pageable);
 
+    @Override
+    @EntityGraph(attributePaths = {"author", "category"})
+    Page<Post> findAll(Pageable pageable);
+
+    // 依 id 分批讀取已發布文章的文字，用於建立記憶體搜尋索引
+    List<PostText> findByPublishedTrueAndIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
     @Query("SELECT p FROM Post p WHERE p.id = :id")
     Optional<Post> findByIdWithComments(Long id);
-}
\ No newline at end of file
+
+    // 自動儲存寫回用：SELECT ... FOR UPDATE，與同一篇文章的正式儲存互相等待
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Post p WHERE p.id = :id")
+    Optional<Post> findByIdForUpdate(Long id);
+
+    // 文章摘要查詢：只取列表需要的欄位，評論數以子查詢計算，不載入 content 全文與評論集合
+    String SUMMARY_SELECT = "SELECT new cc.nilm.blog.dto.PostSummary(" +
+            "p.id, p.title, COALESCE(p.excerpt, SUBSTRING(p.content, 1, " + PostSummary.EXCERPT_LENGTH + ")), " +
+            "a.id, a.fullName, c.id, c.name, p.createdAt, " +
+            "(SELECT COUNT(cm) FROM Comment cm WHERE cm.post = p), p.viewCount) " +
+            "FROM Post p JOIN p.author a LEFT JOIN p.category c ";
+    String WHERE_TAGGED = "WHERE EXISTS (SELECT 1 FROM Post tp JOIN tp.tags t WHERE tp = p AND t.id = :tagId) ";
+
+    @Query(value = SUMMARY_SELECT + "WHERE p.published = true",
+            countQuery = "SELECT COUNT(p) FROM Post p WHERE p.published = true")
+    Page<PostSummary> findPublishedSummaries(Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "WHERE a.id = :authorId",
+            countQuery = "SELECT COUNT(p) FROM Post p WHERE p.author.id = :authorId")
+    Page<PostSummary> findSummariesByAuthorId(Long authorId, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "WHERE c.id = :categoryId",
+            countQuery = "SELECT COUNT(p) FROM Post p WHERE p.category.id = :categoryId")
+    Page<PostSummary> findSummariesByCategoryId(Long categoryId, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + WHERE_TAGGED,
+            countQuery = "SELECT COUNT(p) FROM Post p JOIN p.tags t WHERE t.id = :tagId")
+    Page<PostSummary> findSummariesByTagId(Long tagId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE p.id IN :ids")
+    List<PostSummary> findSummariesByIdIn(Collection<Long> ids);
+
+    // Keyset 分頁：以 (createdAt, id) 由新到舊定位，不使用 OFFSET，也不做 count
+    String SEEK_AFTER = "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) ";
+    String SEEK_ORDER = "ORDER BY p.createdAt DESC, p.id DESC";
+
+    @Query(SUMMARY_SELECT + "WHERE p.published = true " + SEEK_ORDER)
+    List<PostSummary> findPublishedSummariesFirst(Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE p.published = true " + SEEK_AFTER + SEEK_ORDER)
+    List<PostSummary> findPublishedSummariesAfter(LocalDateTime createdAt, Long id, Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE c.id = :categoryId " + SEEK_ORDER)
+    List<PostSummary> findSummariesByCategoryIdFirst(Long categoryId, Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE c.id = :categoryId " + SEEK_AFTER + SEEK_ORDER)
+    List<PostSummary> findSummariesByCategoryIdAfter(Long categoryId, LocalDateTime createdAt, Long id, Limit limit);
+
+    @Query(SUMMARY_SELECT + WHERE_TAGGED + SEEK_ORDER)
+    List<PostSummary> findSummariesByTagIdFirst(Long tagId, Limit limit);
+
+    @Query(SUMMARY_SELECT + WHERE_TAGGED + SEEK_AFTER + SEEK_ORDER)
+    List<PostSummary> findSummariesByTagIdAfter(Long tagId, LocalDateTime createdAt, Long id, Limit limit);
+
+    // 儲存前讀取資料庫中的舊狀態：文章已發布時回傳它的標籤。不觸發 auto flush，
+    // 同一交易內對文章尚未寫入的修改不會反映在結果裡
+    @QueryHints(@QueryHint(name = HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query("SELECT t.id FROM Post p JOIN p.tags t WHERE p.id = :id AND p.published = true")
+    List<Long> findStoredPublishedTagIds(Long id);
+
+    // 彙整：某段時間內發布的文章，範圍為 [from, to)
+    @Query(value = SUMMARY_SELECT + "WHERE p.published = true AND p.createdAt >= :from AND p.createdAt < :to",
+            countQuery = "SELECT COUNT(p) FROM Post p WHERE p.published = true AND p.createdAt >= :from AND p.createdAt < :to")
+    Page<PostSummary> findPublishedSummariesBetween(LocalDateTime from, LocalDateTime to, Pageable pageable);
+
+    // 彙整月份統計重建用，回傳已發布文章的 [id, createdAt]
+    @Query("SELECT p.id, p.createdAt FROM Post p WHERE p.published = true")
+    List<Object[]> findPublishedCreatedAt();
+
+    // 熱門排行重建用，回傳 [id, createdAt, viewCount]
+    @Query("SELECT p.id, p.createdAt, p.viewCount FROM Post p WHERE p.published = true")
+    List<Object[]> findPublishedActivity();
+
+    // 相關文章索引重建用，回傳已發布文章的 [postId, createdAt, tagId]
+    @Query("SELECT p.id, p.createdAt, t.id FROM Post p JOIN p.tags t WHERE p.published = true")
+    List<Object[]> findPublishedTagIds();
+
+    // 一次取回多篇文章的標籤，回傳 [postId, Tag]
+    @Query("SELECT p.id, t FROM Post p JOIN p.tags t WHERE p.id IN :postIds")
+    List<Object[]> findTagsByPostIds(Collection<Long> postIds);
+
+    // 匯出用：依 id 順序以單向游標逐筆讀取 [id, title, content, published, createdAt, username, categoryName]，
+    // 需在交易內使用並關閉 Stream；PostgreSQL 只有在交易內才會依 fetch size 分段取回
+    @Query("SELECT p.id, p.title, p.content, p.published, p.createdAt, a.username, c.name " +
+            "FROM Post p JOIN p.author a LEFT JOIN p.category c ORDER BY p.id")
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "100"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    Stream<Object[]> streamExportRows();
+
+    // 匯出用，回傳 [postId, tagName]
+    @Query("SELECT p.id, t.name FROM Post p JOIN p.tags t WHERE p.id IN :postIds")
+    List<Object[]> findTagNamesByPostIds(Collection<Long> postIds);
+
+    // sitemap 分片用，依主鍵範圍取已發布文章的 [id, createdAt, updatedAt]
+    @Query("SELECT p.id, p.createdAt, p.updatedAt FROM Post p " +
+            "WHERE p.published = true AND p.id >= :fromId AND p.id < :toId ORDER BY p.id")
+    List<Object[]> findSitemapEntries(long fromId, long toId);
+
+    @Query("SELECT MAX(p.id) FROM Post p WHERE p.published = true")
+    Long findMaxPublishedId();
+
+    // RSS/Atom 訂閱用：最新的已發布文章
+    String FEED_SELECT = "SELECT new cc.nilm.blog.service.feed.FeedEntry(" +
+            "p.id, p.title, COALESCE(p.excerpt, SUBSTRING(p.content, 1, " + PostSummary.EXCERPT_LENGTH + ")), " +
+            "a.fullName, p.createdAt, p.updatedAt) FROM Post p JOIN p.author a WHERE p.published = true ";
+
+    @Query(FEED_SELECT + SEEK_ORDER)
+    List<FeedEntry> findFeedEntries(Limit limit);
+
+    @Query(FEED_SELECT + "AND p.category.id = :categoryId " + SEEK_ORDER)
+    List<FeedEntry> findFeedEntriesByCategoryId(Long categoryId, Limit limit);
+
+    @Query(FEED_SELECT + "AND EXISTS (SELECT 1 FROM Post tp JOIN tp.tags t WHERE tp = p AND t.id = :tagId) " + SEEK_ORDER)
+    List<FeedEntry> findFeedEntriesByTagId(Long tagId, Limit limit);
+
+    // 排程發布用，回傳尚未發布且有排程時間的 [id, publishAt]
+    @Query("SELECT p.id, p.publishAt FROM Post p WHERE p.published = false AND p.publishAt IS NOT NULL")
+    List<Object[]> findScheduledPublications();
+
+    // 補渲染尚未產生 HTML 的舊文章
+    List<Post> findByContentHashIsNullOrderByIdAsc(Limit limit);
+}
@@ -0,0 +1,28 @@
+package cc.nilm.blog.repository;
+
+import cc.nilm.blog.dto.PostRevisionSummary;
+import cc.nilm.blog.entity.PostRevision;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PostRevisionRepository extends JpaRepository<PostRevision, Long> {
+
+    Optional<PostRevision> findFirstByPostIdOrderByRevisionDesc(Long postId);
+
+    // 列表不讀 data
+    @Query("SELECT new cc.nilm.blog.dto.PostRevisionSummary(r.revision, r.title, r.snapshot, r.contentLength, r.createdAt) " +
+            "FROM PostRevision r WHERE r.postId = :postId ORDER BY r.revision DESC")
+    List<PostRevisionSummary> findSummariesByPostId(Long postId);
+
+    List<PostRevision> findByPostIdAndRevisionBetweenOrderByRevisionAsc(Long postId, int from, int to);
+
+    @Modifying
+    @Query("DELETE FROM PostRevision r WHERE r.postId = :postId")
+    void deleteByPostId(Long postId);
+}
@@ -1,12 +1,37 @@
 package cc.nilm.blog.repository;
 
+import cc.nilm.blog.dto.TagCloudEntry;
 import cc.nilm.blog.entity.Tag;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TagRepository extends JpaRepository<Tag, Long> {
     Optional<Tag> findByName(String name);
     Boolean existsByName(String name);
+
+    // 只取名稱，不載入其他關聯
+    @Query("SELECT x.name FROM Tag x WHERE x.id = :id")
+    Optional<String> findNameById(Long id);
+
+    // 標籤雲：有已發布文章的標籤，文章多的在前
+    @Query("SELECT new cc.nilm.blog.dto.TagCloudEntry(t.id, t.name, t.color, t.postCount) FROM Tag t " +
+            "WHERE t.postCount > 0 ORDER BY t.postCount DESC, t.name")
+    List<TagCloudEntry> findCloudEntries();
+
+    @Modifying
+    @Query("UPDATE Tag t SET t.postCount = t.postCount + :delta WHERE t.id IN :ids")
+    int adjustPostCounts(Collection<Long> ids, long delta);
+
+    // 依 post_tags 重新計算全部標籤的已發布文章數，修正增量維護以外的寫入（例如批次匯入）造成的偏差
+    @Modifying
+    @Query("UPDATE Tag t SET t.postCount = " +
+            "(SELECT COUNT(p) FROM Post p JOIN p.tags pt WHERE pt = t AND p.published = true)")
+    int recountPostCounts();
 }
\ No newline at end of file
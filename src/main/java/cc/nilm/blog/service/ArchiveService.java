@@ -0,0 +1,103 @@
+package cc.nilm.blog.service;
+
+import cc.nilm.blog.dto.ArchiveMonth;
+import cc.nilm.blog.entity.Post;
+import cc.nilm.blog.event.PostChangedEvent;
+import cc.nilm.blog.event.PostsImportedEvent;
+import cc.nilm.blog.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 文章彙整：各年月的已發布文章數，放在記憶體，側邊欄不必每次對全部文章做 GROUP BY。
+ * <p>
+ * 除了各月的數量，也記住每篇已發布文章所在的月份；{@link PostChangedEvent} 只帶有儲存後的狀態，
+ * 靠這份對照才能在發布狀態或 createdAt 改變時從舊月份扣掉。啟動、匯入後與
+ * {@code app.archive.rebuild-interval} 定期從資料庫重建，也可由管理員手動觸發；
+ * 其他副本的異動要等到下次重建才會反映。
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ArchiveService {
+
+    private final PostRepository postRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, YearMonth> months = new HashMap<>();
+    private final TreeMap<YearMonth, Integer> counts = new TreeMap<>();
+
+    @EventListener({ApplicationReadyEvent.class, PostsImportedEvent.class})
+    @Scheduled(fixedDelayString = "${app.archive.rebuild-interval:PT1H}",
+            initialDelayString = "${app.archive.rebuild-interval:PT1H}")
+    public void rebuild() {
+        List<Object[]> rows = postRepository.findPublishedCreatedAt();
+
+        lock.writeLock().lock();
+        try {
+            months.clear();
+            counts.clear();
+            for (Object[] row : rows) {
+                add((Long) row[0], YearMonth.from((LocalDateTime) row[1]));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Archive rebuilt with {} posts in {} months", rows.size(), counts.size());
+    }
+
+    /**
+     * 有文章的月份與文章數，由新到舊。
+     */
+    public List<ArchiveMonth> months() {
+        lock.readLock().lock();
+        try {
+            List<ArchiveMonth> result = new ArrayList<>(counts.size());
+            counts.descendingMap().forEach((month, count) ->
+                    result.add(new ArchiveMonth(month.getYear(), month.getMonthValue(), count)));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        Post post = event.getPost();
+        YearMonth month = post != null && post.isPublished() && post.getCreatedAt() != null
+                ? YearMonth.from(post.getCreatedAt()) : null;
+
+        lock.writeLock().lock();
+        try {
+            remove(event.getPostId());
+            if (month != null) add(event.getPostId(), month);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(Long postId, YearMonth month) {
+        months.put(postId, month);
+        counts.merge(month, 1, Integer::sum);
+    }
+
+    private void remove(Long postId) {
+        YearMonth month = months.remove(postId);
+        if (month != null) counts.computeIfPresent(month, (m, count) -> count > 1 ? count - 1 : null);
+    }
+}
@@ -1,11 +1,15 @@
 package cc.nilm.blog.service;
 
+import cc.nilm.blog.dto.CategorySummary;
 import cc.nilm.blog.entity.Category;
 import cc.nilm.blog.repository.CategoryRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,16 +17,48 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class CategoryService {
 
+    // 已確認存在的分類 ID，與 TagService 相同：命中時直接取代理參照，不必先查資料庫確認
+    private static final Duration KNOWN_ID_TTL = Duration.ofMinutes(10);
+    private static final int KNOWN_ID_CACHE_SIZE = 1_000;
+
     private final CategoryRepository categoryRepository;
 
+    private final Cache<Long, Boolean> knownIds = Caffeine.newBuilder()
+            .maximumSize(KNOWN_ID_CACHE_SIZE)
+            .expireAfterWrite(KNOWN_ID_TTL)
+            .build();
+
     public List<Category> findAll() {
         return categoryRepository.findAll();
     }
 
+    public List<CategorySummary> findSummaries() {
+        return categoryRepository.findSummaries();
+    }
+
     public Optional<Category> findById(Long id) {
         return categoryRepository.findById(id);
     }
 
+    /**
+     * 取得分類作為文章的關聯參照：已知存在時回傳代理參照，不查資料庫；否則載入並確認存在。
+     * 需在交易或 open-in-view 的 EntityManager 內使用。
+     */
+    public Optional<Category> findReference(Long id) {
+        if (knownIds.getIfPresent(id) != null) return Optional.of(categoryRepository.getReferenceById(id));
+
+        Optional<Category> found = categoryRepository.findById(id);
+        found.ifPresent(category -> knownIds.put(id, Boolean.TRUE));
+        return found;
+    }
+
+    /**
+     * 不再視此 ID 為已知存在，下次 {@link #findReference} 會重新查資料庫確認。
+     */
+    public void evictReference(Long id) {
+        knownIds.invalidate(id);
+    }
+
     public Optional<Category> findByName(String name) {
         return categoryRepository.findByName(name);
     }
@@ -38,6 +74,7 @@ public class CategoryService {
 
     @Transactional
     public void delete(Long id) {
+        knownIds.invalidate(id);
         categoryRepository.deleteById(id);
     }
 }
\ No newline at end of file
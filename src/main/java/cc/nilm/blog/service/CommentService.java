@@ -1,13 +1,19 @@
 package cc.nilm.blog.service;
 
+import cc.nilm.blog.dto.CursorPage;
+import cc.nilm.blog.dto.PageCursor;
 import cc.nilm.blog.entity.Comment;
+import cc.nilm.blog.event.CommentChangedEvent;
 import cc.nilm.blog.repository.CommentRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -15,11 +21,19 @@ import java.util.Optional;
 public class CommentService {
 
     private final CommentRepository commentRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public Page<Comment> findAllByPostId(Long postId, Pageable pageable) {
         return commentRepository.findAllByPostId(postId, pageable);
     }
 
+    public CursorPage<Comment> findAllByPostIdAfter(Long postId, PageCursor cursor, int size) {
+        List<Comment> rows = cursor == null
+                ? commentRepository.findByPostIdFirst(postId, Limit.of(size + 1))
+                : commentRepository.findByPostIdAfter(postId, cursor.getCreatedAt(), cursor.getId(), Limit.of(size + 1));
+        return CursorPage.of(rows, size, c -> new PageCursor(c.getCreatedAt(), c.getId()));
+    }
+
     public Optional<Comment> findById(Long id) {
         return commentRepository.findById(id);
     }
@@ -30,11 +44,20 @@ public class CommentService {
 
     @Transactional
     public Comment save(Comment comment) {
-        return commentRepository.save(comment);
+        boolean created = comment.getId() == null;
+        Comment saved = commentRepository.save(comment);
+        Long postId = saved.getPost().getId();
+        eventPublisher.publishEvent(created
+                ? CommentChangedEvent.created(saved.getId(), postId)
+                : CommentChangedEvent.updated(saved.getId(), postId));
+        return saved;
     }
 
     @Transactional
     public void delete(Long id) {
-        commentRepository.deleteById(id);
+        commentRepository.findById(id).ifPresent(comment -> {
+            commentRepository.delete(comment);
+            eventPublisher.publishEvent(CommentChangedEvent.deleted(id, comment.getPost().getId()));
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,124 @@
+package cc.nilm.blog.service;
+
+import cc.nilm.blog.dto.AutosaveResult;
+import cc.nilm.blog.entity.Post;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 草稿自動儲存的緩衝區。
+ * <p>
+ * 編輯器頻繁送來的部分更新只合併到記憶體中該草稿的待寫狀態並遞增版本號，
+ * 每隔 {@code app.autosave.flush-interval} 才把各草稿最新的狀態寫入一次，中間的狀態直接被覆蓋。
+ * 因此不論編輯多頻繁，每篇草稿在每個間隔內最多寫入一次。應用程式正常關閉時會寫回剩下的部分。
+ * <p>
+ * 緩衝區在各副本各自的記憶體內；同一篇草稿的請求若落在不同副本，較晚寫入的一方為準。
+ * 正式儲存（PUT）或刪除文章時會先丟棄待寫狀態並標記為已丟棄；已經開始的寫回在取得文章的列鎖後檢查這個標記，
+ * 避免較舊的自動儲存內容覆蓋正式儲存的內容（見 {@link PostService#saveDraft}）。
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DraftAutosaveService {
+
+    private final PostService postService;
+
+    // 條目在寫回後只保留作者與版本號，數量以自動儲存過的草稿數為上限
+    private final ConcurrentMap<Long, Draft> drafts = new ConcurrentHashMap<>();
+
+    /**
+     * 草稿的作者 ID；文章不存在或已發布時為 empty。第一次查詢資料庫，之後使用緩衝區內的紀錄。
+     */
+    public Optional<Long> findDraftAuthorId(Long postId) {
+        Draft draft = drafts.get(postId);
+        if (draft != null) return Optional.of(draft.authorId);
+
+        Optional<Post> post = postService.findById(postId);
+        if (post.isEmpty() || post.get().isPublished()) return Optional.empty();
+        return Optional.of(drafts.computeIfAbsent(postId, id -> new Draft(post.get().getAuthor().getId())).authorId);
+    }
+
+    /**
+     * 合併一次部分更新（null 欄位不變），回傳接受後的版本號。需先以 {@link #findDraftAuthorId} 確認過權限。
+     */
+    public AutosaveResult autosave(Long postId, Long authorId, String title, String content) {
+        Draft draft = drafts.computeIfAbsent(postId, id -> new Draft(authorId));
+        synchronized (draft) {
+            if (title != null) draft.title = title;
+            if (content != null) draft.content = content;
+            draft.version++;
+            return new AutosaveResult(draft.version, draft.savedVersion);
+        }
+    }
+
+    /**
+     * 正式儲存或刪除文章時呼叫，丟棄尚未寫回的自動儲存內容。
+     */
+    public void discard(Long postId) {
+        Draft draft = drafts.remove(postId);
+        if (draft != null) draft.discarded = true;
+    }
+
+    @Scheduled(fixedDelayString = "${app.autosave.flush-interval:PT5S}")
+    public void flush() {
+        drafts.forEach(this::flush);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void flush(Long postId, Draft draft) {
+        String title;
+        String content;
+        long version;
+        synchronized (draft) {
+            if (draft.version == draft.savedVersion) return;
+            title = draft.title;
+            content = draft.content;
+            version = draft.version;
+            draft.title = null;
+            draft.content = null;
+        }
+
+        try {
+            if (!postService.saveDraft(postId, title, content, () -> draft.discarded)) {
+                // 已刪除、已在其他副本發布，或寫回期間被正式儲存丟棄
+                drafts.remove(postId, draft);
+                return;
+            }
+            synchronized (draft) {
+                draft.savedVersion = Math.max(draft.savedVersion, version);
+            }
+        } catch (RuntimeException ex) {
+            // 寫回失敗時放回尚未被更新的欄位，下一輪再試
+            synchronized (draft) {
+                if (draft.title == null) draft.title = title;
+                if (draft.content == null) draft.content = content;
+            }
+            log.warn("Failed to autosave draft {}, will retry", postId, ex);
+        }
+    }
+
+    private static final class Draft {
+        final Long authorId;
+        String title;
+        String content;
+        long version;
+        long savedVersion;
+        // discard 之後才完成的寫回以此放棄寫入
+        volatile boolean discarded;
+
+        Draft(Long authorId) {
+            this.authorId = authorId;
+        }
+    }
+}
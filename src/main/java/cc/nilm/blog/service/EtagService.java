@@ -0,0 +1,167 @@
+package cc.nilm.blog.service;
+
+import cc.nilm.blog.entity.Comment;
+import cc.nilm.blog.entity.Post;
+import cc.nilm.blog.event.CommentChangedEvent;
+import cc.nilm.blog.event.PostChangedEvent;
+import cc.nilm.blog.event.PostsImportedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 文章詳情與列表的 ETag。
+ * <p>
+ * ETag 由內容決定：詳情取文章 ID、更新時間與評論，列表取整頁摘要的雜湊，任何副本算出的值都相同。
+ * 詳情的 ETag 刻意不含瀏覽次數：次數每幾秒就寫回一次，納入後熱門文章幾乎不會命中 304；
+ * 因此 304 時客戶端手上的瀏覽次數可能是舊的，要到內容或評論變更才會更新。
+ * 送出過的 ETag 記在本機，帶著相同 If-None-Match 的請求可以直接回 304，不查資料庫也不序列化。
+ * 本機的文章、評論異動會立即讓紀錄失效（列表以版本戳記整批失效）；
+ * 其他副本上的異動無從得知，因此紀錄最多只保留 {@code app.http.etag-ttl}，過期後重新查詢比對。
+ */
+@Service
+public class EtagService {
+
+    static final int MAX_ENTRIES = 10_000;
+    private static final String POST_KEY = "post:";
+    private static final String LISTING_KEY = "list:";
+
+    private final long ttlNanos;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    public EtagService(@Value("${app.http.etag-ttl:30s}") Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public static String postKey(Long postId) {
+        return POST_KEY + postId;
+    }
+
+    public static String listingKey(Object... parts) {
+        StringBuilder key = new StringBuilder(LISTING_KEY);
+        for (Object part : parts) {
+            key.append(part).append(':');
+        }
+        return key.toString();
+    }
+
+    /**
+     * 回傳本機記錄且仍有效的 ETag，沒有則為 null。
+     */
+    public String knownEtag(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) return null;
+        if (System.nanoTime() - entry.createdAt > ttlNanos || isStaleListing(key, entry)) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.etag;
+    }
+
+    /**
+     * 目前的版本戳記，每次文章或評論異動都會遞增。查詢前先取得，再交給 {@link #remember}。
+     */
+    public long currentVersion() {
+        return version.get();
+    }
+
+    /**
+     * 記錄送出的 ETag；若查詢期間本機已有異動（版本戳記改變），查到的可能是舊內容，不予記錄。
+     */
+    public void remember(String key, String etag, long versionBeforeLoad) {
+        if (versionBeforeLoad != version.get()) return;
+        if (entries.size() >= MAX_ENTRIES) {
+            // 上限只是防止無限成長，清空後由後續請求重新填入
+            entries.clear();
+        }
+        entries.put(key, new Entry(etag, System.nanoTime(), versionBeforeLoad));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        version.incrementAndGet();
+        entries.remove(postKey(event.getPostId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentChanged(CommentChangedEvent event) {
+        // 詳情含評論，列表含評論數
+        version.incrementAndGet();
+        entries.remove(postKey(event.getPostId()));
+    }
+
+    @EventListener
+    public void onPostsImported(PostsImportedEvent event) {
+        // 列表內容整批改變
+        version.incrementAndGet();
+    }
+
+    /**
+     * 文章詳情的 ETag：文章 ID、最後修改時間（未修改過則為建立時間）與評論內容的摘要。
+     * 不含瀏覽次數，只有瀏覽次數不同的兩個版本視為相同。
+     */
+    public static String etagOf(Post post) {
+        LocalDateTime modifiedAt = post.getUpdatedAt() != null ? post.getUpdatedAt() : post.getCreatedAt();
+        long modifiedMillis = modifiedAt == null ? 0L : modifiedAt.toInstant(ZoneOffset.UTC).toEpochMilli();
+        StringBuilder comments = new StringBuilder();
+        post.getComments().stream()
+                .sorted(Comparator.comparing(Comment::getId, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .forEach(comment -> comments.append(comment.getId()).append('=').append(comment.getContent()).append('\n'));
+        return "\"" + post.getId() + "-" + Long.toHexString(modifiedMillis) + "-" + digest(comments.toString()) + "\"";
+    }
+
+    /**
+     * 列表的 ETag：整頁內容與總筆數的摘要。
+     */
+    public static String etagOf(Page<?> page) {
+        return "\"" + digest(page.getTotalElements() + "|" + page.getContent()) + "\"";
+    }
+
+    /**
+     * 依 RFC 9110 比對 If-None-Match：支援多個值、{@code *} 與弱比較（忽略 W/ 前綴）。
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank() || etag == null) return false;
+        String target = stripWeak(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || stripWeak(value).equals(target)) return true;
+        }
+        return false;
+    }
+
+    private boolean isStaleListing(String key, Entry entry) {
+        return key.startsWith(LISTING_KEY) && entry.version != version.get();
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private static String digest(String text) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 12);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private record Entry(String etag, long createdAt, long version) {
+    }
+}
@@ -0,0 +1,82 @@
+package cc.nilm.blog.service;
+
+import cc.nilm.blog.entity.Post;
+import cc.nilm.blog.repository.PostRepository;
+import cc.nilm.blog.service.markdown.MarkdownRenderer;
+import cc.nilm.blog.service.markdown.RenderedContent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * 在儲存文章時預先渲染 Markdown，讀取時直接回傳存好的 HTML、目錄、閱讀時間與摘要。
+ * <p>
+ * 以 content 的 SHA-256 判斷是否需要重新渲染：只改標題、分類或發布狀態的儲存不會重跑渲染。
+ * 升級前已存在的文章沒有雜湊，啟動時分批補上。
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PostRenderingService {
+
+    private static final int BACKFILL_BATCH_SIZE = 100;
+
+    private final MarkdownRenderer markdownRenderer;
+    private final PostRepository postRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 依目前的 content 更新渲染欄位；內容未變時不做事。回傳是否重新渲染。
+     */
+    public boolean render(Post post) {
+        // 內文屬於延遲載入群組；未載入代表這次儲存沒有改內文（例如只切換發布狀態），不必查回來比對
+        if (post.getContentHash() != null && !Hibernate.isPropertyInitialized(post, "content")) return false;
+        String hash = hash(post.getContent());
+        if (hash.equals(post.getContentHash())) return false;
+
+        RenderedContent rendered = markdownRenderer.render(post.getContent());
+        post.setContentHtml(rendered.html());
+        post.setToc(rendered.toc());
+        post.setReadingTimeMinutes(rendered.readingTimeMinutes());
+        post.setExcerpt(rendered.excerpt());
+        post.setContentHash(hash);
+        return true;
+    }
+
+    // 每批各自一個交易；渲染結果只取決於 content，不發布 PostChangedEvent
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int total = 0;
+        int rendered;
+        do {
+            rendered = transactionTemplate.execute(status -> {
+                List<Post> batch = postRepository.findByContentHashIsNullOrderByIdAsc(Limit.of(BACKFILL_BATCH_SIZE));
+                batch.forEach(this::render);
+                return batch.size();
+            });
+            total += rendered;
+        } while (rendered == BACKFILL_BATCH_SIZE);
+        if (total > 0) log.info("Rendered Markdown for {} existing posts", total);
+    }
+
+    static String hash(String content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest((content == null ? "" : content).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
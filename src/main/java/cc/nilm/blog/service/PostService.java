@@ -1,26 +1,95 @@
 package cc.nilm.blog.service;
 
+import cc.nilm.blog.dto.CursorPage;
+import cc.nilm.blog.dto.PageCursor;
+import cc.nilm.blog.dto.PostSearchHit;
+import cc.nilm.blog.dto.PostSummary;
 import cc.nilm.blog.entity.Post;
+import cc.nilm.blog.entity.Tag;
 import cc.nilm.blog.entity.User;
+import cc.nilm.blog.event.PostChangedEvent;
 import cc.nilm.blog.repository.PostRepository;
+import cc.nilm.blog.service.cache.PostCache;
+import cc.nilm.blog.service.cache.PostSnapshot;
+import cc.nilm.blog.service.revision.PostRevisionService;
+import cc.nilm.blog.service.search.PostSearchEngine;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.BooleanSupplier;
 
 @Service
 @RequiredArgsConstructor
 public class PostService {
 
     private final PostRepository postRepository;
+    private final PostSearchEngine postSearchEngine;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PostCache postCache;
+    private final TransactionTemplate transactionTemplate;
+    private final PostRenderingService postRenderingService;
+    private final PostRevisionService postRevisionService;
+    private final TagService tagService;
 
     public Page<Post> findPublishedPosts(Pageable pageable) {
         return postRepository.findByPublishedTrue(pageable);
     }
 
+    public Page<PostSummary> findPublishedSummaries(Pageable pageable) {
+        return withTags(postRepository.findPublishedSummaries(pageable));
+    }
+
+    public Page<PostSummary> findSummariesByAuthorId(Long authorId, Pageable pageable) {
+        return withTags(postRepository.findSummariesByAuthorId(authorId, pageable));
+    }
+
+    public Page<PostSummary> findSummariesByCategoryId(Long categoryId, Pageable pageable) {
+        return withTags(postRepository.findSummariesByCategoryId(categoryId, pageable));
+    }
+
+    public Page<PostSummary> findSummariesByTagId(Long tagId, Pageable pageable) {
+        return withTags(postRepository.findSummariesByTagId(tagId, pageable));
+    }
+
+    public Page<PostSummary> findPublishedSummariesBetween(LocalDateTime from, LocalDateTime to, Pageable pageable) {
+        return withTags(postRepository.findPublishedSummariesBetween(from, to, pageable));
+    }
+
+    public CursorPage<PostSummary> findPublishedSummariesAfter(PageCursor cursor, int size) {
+        List<PostSummary> rows = cursor == null
+                ? postRepository.findPublishedSummariesFirst(Limit.of(size + 1))
+                : postRepository.findPublishedSummariesAfter(cursor.getCreatedAt(), cursor.getId(), Limit.of(size + 1));
+        return toCursorPage(rows, size);
+    }
+
+    public CursorPage<PostSummary> findSummariesByCategoryIdAfter(Long categoryId, PageCursor cursor, int size) {
+        List<PostSummary> rows = cursor == null
+                ? postRepository.findSummariesByCategoryIdFirst(categoryId, Limit.of(size + 1))
+                : postRepository.findSummariesByCategoryIdAfter(categoryId, cursor.getCreatedAt(), cursor.getId(), Limit.of(size + 1));
+        return toCursorPage(rows, size);
+    }
+
+    public CursorPage<PostSummary> findSummariesByTagIdAfter(Long tagId, PageCursor cursor, int size) {
+        List<PostSummary> rows = cursor == null
+                ? postRepository.findSummariesByTagIdFirst(tagId, Limit.of(size + 1))
+                : postRepository.findSummariesByTagIdAfter(tagId, cursor.getCreatedAt(), cursor.getId(), Limit.of(size + 1));
+        return toCursorPage(rows, size);
+    }
+
     public Page<Post> findAllPosts(Pageable pageable) {
         return postRepository.findAll(pageable);
     }
@@ -29,8 +98,40 @@ public class PostService {
         return postRepository.findByAuthor(author, pageable);
     }
 
-    public Page<Post> searchPosts(String query, Pageable pageable) {
-        return postRepository.findByTitleContainingOrContentContaining(query, query, pageable);
+    // 依相關度排序，附上搜尋引擎產生的命中片段
+    public Page<PostSummary> searchPosts(String query, Pageable pageable) {
+        Page<PostSearchHit> hits = postSearchEngine.search(query, pageable);
+        if (hits.isEmpty()) return new PageImpl<>(List.of(), pageable, hits.getTotalElements());
+
+        Map<Long, PostSummary> byId = new HashMap<>();
+        postRepository.findSummariesByIdIn(hits.map(PostSearchHit::getPostId).getContent())
+                .forEach(summary -> byId.put(summary.getId(), summary));
+
+        List<PostSummary> summaries = new ArrayList<>();
+        for (PostSearchHit hit : hits) {
+            PostSummary summary = byId.get(hit.getPostId());
+            if (summary == null) continue;
+            summary.setHighlight(hit.getSnippet());
+            summaries.add(summary);
+        }
+        attachTags(summaries);
+        return new PageImpl<>(summaries, pageable, hits.getTotalElements());
+    }
+
+    // 依指定的 ID 順序回傳摘要，已不存在的文章略過
+    public List<PostSummary> findSummariesByIds(List<Long> ids) {
+        if (ids.isEmpty()) return List.of();
+
+        Map<Long, PostSummary> byId = new HashMap<>();
+        postRepository.findSummariesByIdIn(ids).forEach(summary -> byId.put(summary.getId(), summary));
+
+        List<PostSummary> summaries = new ArrayList<>();
+        for (Long id : ids) {
+            PostSummary summary = byId.get(id);
+            if (summary != null) summaries.add(summary);
+        }
+        attachTags(summaries);
+        return summaries;
     }
 
     public Page<Post> findByCategoryId(Long categoryId, Pageable pageable) {
@@ -45,18 +146,97 @@ public class PostService {
         return postRepository.findById(id);
     }
 
-    @Transactional
+    // 經過快取，回傳的是唯讀用途的 detached 副本；要修改後儲存請使用 findById。
+    // 快取命中時不開交易，未命中才在交易內載入並建立快照
     public Optional<Post> findByIdWithComments(Long id) {
-        return postRepository.findByIdWithComments(id);
+        return postCache.get(id, () -> transactionTemplate.execute(status ->
+                postRepository.findByIdWithComments(id).map(PostSnapshot::of)));
     }
 
     @Transactional
     public Post save(Post post) {
-        return postRepository.save(post);
+        List<Long> tagsBefore = post.getId() == null ? List.of() : postRepository.findStoredPublishedTagIds(post.getId());
+        postRenderingService.render(post);
+        Post saved = postRepository.save(post);
+        tagService.adjustPostCounts(tagsBefore, publishedTagIds(saved));
+        postRevisionService.record(saved);
+        eventPublisher.publishEvent(PostChangedEvent.saved(saved));
+        return saved;
+    }
+
+    /**
+     * 自動儲存寫入草稿的標題與內文（null 表示不變）。只更新這兩個欄位與渲染結果，不重新解析分類、標籤，
+     * 也不產生修訂版本；文章已不存在、已發布或 {@code discarded} 為 true 時不寫入並回傳 false。
+     * <p>
+     * {@code discarded} 在取得文章的列鎖之後才檢查：正式儲存若已丟棄這份自動儲存內容並提交，這裡會看到並放棄寫入；
+     * 若尚未提交，正式儲存的 UPDATE 會等這裡提交後再覆蓋，不會被較舊的自動儲存內容蓋掉。
+     */
+    @Transactional
+    public boolean saveDraft(Long id, String title, String content, BooleanSupplier discarded) {
+        Optional<Post> found = postRepository.findByIdForUpdate(id);
+        if (found.isEmpty() || found.get().isPublished() || discarded.getAsBoolean()) return false;
+
+        Post post = found.get();
+        if (title != null) post.setTitle(title);
+        if (content != null) post.setContent(content);
+        post.setUpdatedAt(LocalDateTime.now());
+        postRenderingService.render(post);
+        eventPublisher.publishEvent(PostChangedEvent.saved(post));
+        return true;
+    }
+
+    /**
+     * 發布排程到期的文章：發布時間成為 createdAt，讓文章出現在列表最前面。文章已不存在、已發布、
+     * 排程已取消或改到 now 之後時不處理並回傳 false。
+     */
+    @Transactional
+    public boolean publishScheduled(Long id, LocalDateTime now) {
+        Optional<Post> found = postRepository.findById(id);
+        if (found.isEmpty()) return false;
+        Post post = found.get();
+        if (post.isPublished() || post.getPublishAt() == null || post.getPublishAt().isAfter(now)) return false;
+
+        post.setPublished(true);
+        post.setCreatedAt(post.getPublishAt());
+        post.setPublishAt(null);
+        save(post);
+        return true;
     }
 
     @Transactional
     public void delete(Long id) {
+        tagService.adjustPostCounts(postRepository.findStoredPublishedTagIds(id), List.of());
+        postRevisionService.deleteRevisions(id);
         postRepository.deleteById(id);
+        eventPublisher.publishEvent(PostChangedEvent.deleted(id));
+    }
+
+    private static List<Long> publishedTagIds(Post post) {
+        if (!post.isPublished() || post.getTags() == null) return List.of();
+        return post.getTags().stream().map(Tag::getId).toList();
+    }
+
+    private CursorPage<PostSummary> toCursorPage(List<PostSummary> rows, int size) {
+        CursorPage<PostSummary> page = CursorPage.of(rows, size, s -> new PageCursor(s.getCreatedAt(), s.getId()));
+        attachTags(page.getContent());
+        return page;
+    }
+
+    private Page<PostSummary> withTags(Page<PostSummary> page) {
+        attachTags(page.getContent());
+        return page;
+    }
+
+    // 以單一查詢補上整頁摘要的標籤，避免逐筆載入
+    private void attachTags(Collection<PostSummary> summaries) {
+        if (summaries.isEmpty()) return;
+
+        Map<Long, PostSummary> byId = new HashMap<>();
+        summaries.forEach(summary -> byId.put(summary.getId(), summary));
+
+        for (Object[] row : postRepository.findTagsByPostIds(byId.keySet())) {
+            PostSummary summary = byId.get((Long) row[0]);
+            if (summary != null) summary.getTags().add((Tag) row[1]);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,89 @@
+package cc.nilm.blog.service;
+
+import cc.nilm.blog.event.PostViewsFlushedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 文章瀏覽次數計數器。
+ * <p>
+ * 每次瀏覽只在記憶體中對該文章的 {@link LongAdder} 加一，不鎖資料列，多核心下也不會互相爭用；
+ * 累積的次數定期以批次 UPDATE 累加到資料庫，應用程式正常關閉時也會寫回一次。
+ * 各副本各自累加增量，因此多副本部署下次數不會互相覆蓋；行程異常終止時會遺失尚未寫回的部分。
+ */
+@Component
+@Slf4j
+public class PostViewCounter {
+
+    static final String FLUSH_SQL = "UPDATE posts SET view_count = view_count + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // 條目不會移除：移除時若有執行緒正在累加同一個 LongAdder，那次瀏覽就會遺失。數量以文章數為上限
+    private final ConcurrentMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    public PostViewCounter(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public void increment(Long postId) {
+        pending.computeIfAbsent(postId, id -> new LongAdder()).increment();
+    }
+
+    /**
+     * 尚未寫回資料庫的次數。
+     */
+    public long pendingViews(Long postId) {
+        LongAdder adder = pending.get(postId);
+        return adder == null ? 0L : adder.sum();
+    }
+
+    @Scheduled(fixedDelayString = "${app.views.flush-interval:PT10S}")
+    public void flush() {
+        Map<Long, Long> flushed = drain();
+        if (!flushed.isEmpty()) eventPublisher.publishEvent(new PostViewsFlushedEvent(flushed));
+    }
+
+    // 關閉時 context 已在銷毀 bean，只寫回資料庫，不再發布事件
+    @PreDestroy
+    public void flushOnShutdown() {
+        drain();
+    }
+
+    private Map<Long, Long> drain() {
+        // 依 id 排序，多個副本同時寫回時以相同順序鎖定資料列，避免死結
+        Map<Long, Long> deltas = new TreeMap<>();
+        pending.forEach((postId, adder) -> {
+            long views = adder.sumThenReset();
+            if (views > 0) deltas.put(postId, views);
+        });
+        if (deltas.isEmpty()) return deltas;
+
+        List<Object[]> batch = new ArrayList<>(deltas.size());
+        deltas.forEach((postId, views) -> batch.add(new Object[]{views, postId}));
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+            log.debug("Flushed view counts for {} posts", deltas.size());
+            return deltas;
+        } catch (RuntimeException ex) {
+            // 寫回失敗時把次數加回去，下一輪再試
+            deltas.forEach((postId, views) -> pending.computeIfAbsent(postId, id -> new LongAdder()).add(views));
+            log.warn("Failed to flush view counts for {} posts, will retry", deltas.size(), ex);
+            return Map.of();
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package cc.nilm.blog.service;
+
+import cc.nilm.blog.entity.Post;
+import cc.nilm.blog.event.PostChangedEvent;
+import cc.nilm.blog.event.PostsImportedEvent;
+import cc.nilm.blog.repository.PostRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 排程發布：把尚未發布且設定了 {@code publishAt} 的文章依時間排序放在記憶體，只對最早的一篇設定計時器，
+ * 到期時發布所有已到期的文章，再對下一篇重新設定，不必定期輪詢資料庫。
+ * <p>
+ * 啟動與匯入後從資料庫載入；之後由 {@link PostChangedEvent} 增量維護。其他副本上排程或取消的文章
+ * 本副本收不到事件，由 {@code app.publishing.reload-interval} 定期重新載入補上，最多晚這麼久。
+ * <p>
+ * 每個副本都會在同一時間觸發。PostgreSQL 上發布前在交易內取得以文章 ID 為鍵的 advisory lock，
+ * 取不到代表其他副本正在發布，直接略過；取到後 {@link PostService#publishScheduled} 仍會重新檢查狀態，
+ * 其他副本已經發布過的文章不會再處理一次。
+ */
+@Service
+@Slf4j
+public class PublicationScheduler {
+
+    // pg_try_advisory_xact_lock(int, int) 的第一個鍵，與其他用途的 advisory lock 區隔
+    static final int LOCK_CLASS = 0x5075_6231;
+
+    private final PostRepository postRepository;
+    private final PostService postService;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final ScheduledExecutorService timer;
+
+    private final Map<Long, LocalDateTime> pending = new HashMap<>();
+    private final TreeSet<Entry> queue = new TreeSet<>(Comparator.comparing(Entry::publishAt)
+            .thenComparing(Entry::postId));
+    private ScheduledFuture<?> armed;
+    private LocalDateTime armedAt;
+    private Boolean advisoryLocks;
+
+    @Autowired
+    public PublicationScheduler(PostRepository postRepository,
+                                PostService postService,
+                                TransactionTemplate transactionTemplate,
+                                JdbcTemplate jdbcTemplate) {
+        this(postRepository, postService, transactionTemplate, jdbcTemplate, Clock.systemDefaultZone(),
+                Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "publication-scheduler");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    PublicationScheduler(PostRepository postRepository, PostService postService,
+                         TransactionTemplate transactionTemplate, JdbcTemplate jdbcTemplate,
+                         Clock clock, ScheduledExecutorService timer) {
+        this.postRepository = postRepository;
+        this.postService = postService;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        this.timer = timer;
+    }
+
+    @EventListener({ApplicationReadyEvent.class, PostsImportedEvent.class})
+    @Scheduled(fixedDelayString = "${app.publishing.reload-interval:PT10M}",
+            initialDelayString = "${app.publishing.reload-interval:PT10M}")
+    public void reload() {
+        List<Object[]> rows = postRepository.findScheduledPublications();
+        synchronized (this) {
+            pending.clear();
+            queue.clear();
+            for (Object[] row : rows) {
+                add((Long) row[0], (LocalDateTime) row[1]);
+            }
+            rearm();
+        }
+        log.debug("Loaded {} scheduled publications", rows.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPostChanged(PostChangedEvent event) {
+        remove(event.getPostId());
+        Post post = event.getPost();
+        if (post != null && !post.isPublished() && post.getPublishAt() != null) {
+            add(post.getId(), post.getPublishAt());
+        }
+        rearm();
+    }
+
+    /**
+     * 目前排程中的文章數，供監控與測試使用。
+     */
+    public synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * 發布所有已到期的文章。由計時器呼叫；發布失敗的文章留給下次重新載入再試。
+     */
+    void fireDue() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<Long> due = new ArrayList<>();
+        synchronized (this) {
+            armed = null;
+            armedAt = null;
+            while (!queue.isEmpty() && !queue.first().publishAt().isAfter(now)) {
+                Entry head = queue.pollFirst();
+                pending.remove(head.postId());
+                due.add(head.postId());
+            }
+        }
+
+        for (Long postId : due) {
+            try {
+                Boolean published = transactionTemplate.execute(status ->
+                        tryLock(postId) && postService.publishScheduled(postId, now));
+                if (Boolean.TRUE.equals(published)) log.info("Published scheduled post {}", postId);
+            } catch (RuntimeException ex) {
+                log.warn("Failed to publish scheduled post {}", postId, ex);
+            }
+        }
+
+        synchronized (this) {
+            rearm();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    private void add(Long postId, LocalDateTime publishAt) {
+        pending.put(postId, publishAt);
+        queue.add(new Entry(postId, publishAt));
+    }
+
+    private void remove(Long postId) {
+        LocalDateTime publishAt = pending.remove(postId);
+        if (publishAt != null) queue.remove(new Entry(postId, publishAt));
+    }
+
+    // 計時器只對準最早的一篇；最早時間沒變時保留原本的計時器
+    private void rearm() {
+        LocalDateTime next = queue.isEmpty() ? null : queue.first().publishAt();
+        if (next != null && next.equals(armedAt)) return;
+        if (armed != null) armed.cancel(false);
+        armed = null;
+        armedAt = next;
+        if (next == null || timer.isShutdown()) return;
+
+        long delay = Math.max(0, Duration.between(LocalDateTime.now(clock), next).toMillis());
+        armed = timer.schedule(this::fireDue, delay, TimeUnit.MILLISECONDS);
+    }
+
+    // 在目前交易內取得 advisory lock，交易結束時自動釋放；非 PostgreSQL（測試用的 H2）只有單一程序，不需要
+    private boolean tryLock(Long postId) {
+        if (advisoryLocks == null) {
+            String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            advisoryLocks = "PostgreSQL".equals(database);
+        }
+        if (!advisoryLocks) return true;
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(?, ?)", Boolean.class, LOCK_CLASS, postId.intValue()));
+    }
+
+    private record Entry(Long postId, LocalDateTime publishAt) {
+    }
+}
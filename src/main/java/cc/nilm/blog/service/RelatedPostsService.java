@@ -0,0 +1,145 @@
+package cc.nilm.blog.service;
+
+import cc.nilm.blog.entity.Post;
+import cc.nilm.blog.entity.Tag;
+import cc.nilm.blog.event.PostChangedEvent;
+import cc.nilm.blog.event.PostsImportedEvent;
+import cc.nilm.blog.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 以共同標籤計算的相關文章。
+ * <p>
+ * 記憶體中保存已發布文章的標籤與標籤 → 文章的倒排索引，啟動時從資料庫建立，之後依 {@link PostChangedEvent}
+ * 增量更新（例如 PostController.updatePost 修改標籤時）。查詢只需走訪該文章各標籤的文章清單，
+ * 以 Jaccard 相似度 |A∩B| / |A∪B| 排序，分數相同時較新的文章在前，不必每次瀏覽都對 post_tags 做 join。
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RelatedPostsService {
+
+    private final PostRepository postRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Set<Long>> tagsByPost = new HashMap<>();
+    private final Map<Long, Set<Long>> postsByTag = new HashMap<>();
+    private final Map<Long, LocalDateTime> createdAtByPost = new HashMap<>();
+
+    @EventListener({ApplicationReadyEvent.class, PostsImportedEvent.class})
+    public void rebuild() {
+        List<Object[]> rows = postRepository.findPublishedTagIds();
+        lock.writeLock().lock();
+        try {
+            tagsByPost.clear();
+            postsByTag.clear();
+            createdAtByPost.clear();
+            for (Object[] row : rows) {
+                Long postId = (Long) row[0];
+                Long tagId = (Long) row[2];
+                createdAtByPost.put(postId, (LocalDateTime) row[1]);
+                tagsByPost.computeIfAbsent(postId, id -> new HashSet<>()).add(tagId);
+                postsByTag.computeIfAbsent(tagId, id -> new HashSet<>()).add(postId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Related posts index built with {} posts and {} tags", tagsByPost.size(), postsByTag.size());
+    }
+
+    /**
+     * 與指定文章最相關的已發布文章 ID，由高到低；文章未發布或沒有標籤時為空。
+     */
+    public List<Long> relatedPostIds(Long postId, int limit) {
+        lock.readLock().lock();
+        try {
+            Set<Long> tags = tagsByPost.get(postId);
+            if (tags == null) return List.of();
+
+            Map<Long, Integer> shared = new HashMap<>();
+            for (Long tagId : tags) {
+                for (Long other : postsByTag.get(tagId)) {
+                    if (!other.equals(postId)) shared.merge(other, 1, Integer::sum);
+                }
+            }
+
+            List<Scored> scored = new ArrayList<>(shared.size());
+            shared.forEach((other, common) -> {
+                int union = tags.size() + tagsByPost.get(other).size() - common;
+                scored.add(new Scored(other, (double) common / union, createdAtByPost.get(other)));
+            });
+            scored.sort(Comparator.comparingDouble(Scored::score).reversed()
+                    .thenComparing(Scored::createdAt, Comparator.nullsLast(Comparator.reverseOrder()))
+                    .thenComparing(Scored::postId, Comparator.reverseOrder()));
+            return scored.stream().limit(limit).map(Scored::postId).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        Post post = event.getPost();
+        if (event.isDeleted() || !post.isPublished()) {
+            index(event.getPostId(), null, Set.of());
+        } else {
+            index(post.getId(), post.getCreatedAt(), tagIdsOf(post));
+        }
+    }
+
+    void index(Long postId, LocalDateTime createdAt, Set<Long> tagIds) {
+        lock.writeLock().lock();
+        try {
+            Set<Long> previous = tagsByPost.remove(postId);
+            if (previous != null) {
+                for (Long tagId : previous) {
+                    Set<Long> posts = postsByTag.get(tagId);
+                    posts.remove(postId);
+                    if (posts.isEmpty()) postsByTag.remove(tagId);
+                }
+            }
+            createdAtByPost.remove(postId);
+            if (tagIds.isEmpty()) return;
+
+            tagsByPost.put(postId, new HashSet<>(tagIds));
+            createdAtByPost.put(postId, createdAt);
+            for (Long tagId : tagIds) {
+                postsByTag.computeIfAbsent(tagId, id -> new HashSet<>()).add(postId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 事件可能在 session 關閉後才處理，標籤集合尚未載入時改從資料庫查
+    private Set<Long> tagIdsOf(Post post) {
+        Set<Long> tagIds = new HashSet<>();
+        if (Hibernate.isInitialized(post.getTags())) {
+            post.getTags().forEach(tag -> tagIds.add(tag.getId()));
+        } else {
+            postRepository.findTagsByPostIds(List.of(post.getId()))
+                    .forEach(row -> tagIds.add(((Tag) row[1]).getId()));
+        }
+        return tagIds;
+    }
+
+    private record Scored(Long postId, double score, LocalDateTime createdAt) {
+    }
+}
@@ -0,0 +1,102 @@
+package cc.nilm.blog.service;
+
+import cc.nilm.blog.dto.TagCloudEntry;
+import cc.nilm.blog.event.PostChangedEvent;
+import cc.nilm.blog.event.PostsImportedEvent;
+import cc.nilm.blog.repository.TagRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 標籤雲：各標籤的已發布文章數（{@code tags.post_count}）組成的快照，連同 ETag 快取在記憶體。
+ * <p>
+ * 文章數由 {@link TagService#adjustPostCounts} 隨文章異動增量維護，這裡只在文章異動提交後丟棄快照；
+ * 其他副本的異動最多延遲 {@code app.tags.cloud-ttl}。啟動、匯入後與 {@code app.tags.recount-interval}
+ * 定期從 post_tags 重新計算，修正批次匯入等未經 PostService 的寫入。
+ */
+@Service
+@Slf4j
+public class TagCloudService {
+
+    private final TagRepository tagRepository;
+    private final TagService tagService;
+    private final Duration ttl;
+    private final Clock clock;
+
+    // 每次失效加一；建立快照期間版本改變時不保留結果，避免覆蓋較新的失效
+    private final AtomicLong version = new AtomicLong();
+    private volatile TagCloud cached;
+
+    @Autowired
+    public TagCloudService(TagRepository tagRepository,
+                           TagService tagService,
+                           @Value("${app.tags.cloud-ttl:PT5M}") Duration ttl) {
+        this(tagRepository, tagService, ttl, Clock.systemUTC());
+    }
+
+    TagCloudService(TagRepository tagRepository, TagService tagService, Duration ttl, Clock clock) {
+        this.tagRepository = tagRepository;
+        this.tagService = tagService;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    public TagCloud cloud() {
+        TagCloud cloud = cached;
+        Instant now = clock.instant();
+        if (cloud != null && cloud.builtAt().plus(ttl).isAfter(now)) return cloud;
+
+        long current = version.get();
+        List<TagCloudEntry> tags = tagRepository.findCloudEntries();
+        cloud = new TagCloud(tags, "\"" + digest(tags.toString()) + "\"", now);
+        if (version.get() == current) cached = cloud;
+        return cloud;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        invalidate();
+    }
+
+    @EventListener({ApplicationReadyEvent.class, PostsImportedEvent.class})
+    @Scheduled(fixedDelayString = "${app.tags.recount-interval:PT6H}",
+            initialDelayString = "${app.tags.recount-interval:PT6H}")
+    public void recount() {
+        int updated = tagService.recountPostCounts();
+        invalidate();
+        log.info("Recounted published posts for {} tags", updated);
+    }
+
+    private void invalidate() {
+        version.incrementAndGet();
+        cached = null;
+    }
+
+    private static String digest(String text) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 12);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    public record TagCloud(List<TagCloudEntry> tags, String etag, Instant builtAt) {
+    }
+}
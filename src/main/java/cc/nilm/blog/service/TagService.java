@@ -2,19 +2,37 @@ package cc.nilm.blog.service;
 
 import cc.nilm.blog.entity.Tag;
 import cc.nilm.blog.repository.TagRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class TagService {
 
+    // 已確認存在的標籤 ID。編輯文章時命中的標籤直接取代理參照，不必先查資料庫確認；
+    // 其他副本刪除的標籤最多延遲 KNOWN_ID_TTL 才反映
+    private static final Duration KNOWN_ID_TTL = Duration.ofMinutes(10);
+    private static final int KNOWN_ID_CACHE_SIZE = 10_000;
+
     private final TagRepository tagRepository;
 
+    private final Cache<Long, Boolean> knownIds = Caffeine.newBuilder()
+            .maximumSize(KNOWN_ID_CACHE_SIZE)
+            .expireAfterWrite(KNOWN_ID_TTL)
+            .build();
+
     public List<Tag> findAll() {
         return tagRepository.findAll();
     }
@@ -23,6 +41,38 @@ public class TagService {
         return tagRepository.findById(id);
     }
 
+    /**
+     * 依 ID 批次取得標籤，作為文章的關聯參照。已知存在的 ID 回傳目前 EntityManager 中的代理參照，
+     * 不查資料庫，用到名稱等欄位時才以 @BatchSize 一次載入；其餘以一次 IN 查詢載入並確認存在。
+     * 不存在的 ID 不會出現在結果裡，由呼叫端判斷。需在交易或 open-in-view 的 EntityManager 內使用。
+     */
+    public Map<Long, Tag> findReferences(Collection<Long> ids) {
+        Map<Long, Tag> found = new HashMap<>();
+        Set<Long> unknown = new HashSet<>();
+        for (Long id : ids) {
+            if (knownIds.getIfPresent(id) != null) {
+                found.put(id, tagRepository.getReferenceById(id));
+            } else {
+                unknown.add(id);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            for (Tag tag : tagRepository.findAllById(unknown)) {
+                knownIds.put(tag.getId(), Boolean.TRUE);
+                found.put(tag.getId(), tag);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * 不再視這些 ID 為已知存在，下次 {@link #findReferences} 會重新查資料庫確認。
+     * 用於以代理參照儲存時撞到外鍵違反，代表標籤可能已在其他副本刪除。
+     */
+    public void evictReferences(Collection<Long> ids) {
+        knownIds.invalidateAll(ids);
+    }
+
     public Optional<Tag> findByName(String name) {
         return tagRepository.findByName(name);
     }
@@ -38,6 +88,30 @@ public class TagService {
 
     @Transactional
     public void delete(Long id) {
+        knownIds.invalidate(id);
         tagRepository.deleteById(id);
     }
+
+    /**
+     * 文章的已發布標籤由 before 變為 after 時，增減相關標籤的文章數。在呼叫端的交易內執行，
+     * 與文章本身的修改一起提交；以 postCount + delta 累加，不會覆蓋並行交易的更新。
+     */
+    @Transactional
+    public void adjustPostCounts(Collection<Long> before, Collection<Long> after) {
+        Set<Long> added = new HashSet<>(after);
+        added.removeAll(before);
+        Set<Long> removed = new HashSet<>(before);
+        removed.removeAll(after);
+
+        if (!added.isEmpty()) tagRepository.adjustPostCounts(added, 1);
+        if (!removed.isEmpty()) tagRepository.adjustPostCounts(removed, -1);
+    }
+
+    /**
+     * 從 post_tags 重新計算全部標籤的文章數，回傳更新的標籤數。
+     */
+    @Transactional
+    public int recountPostCounts() {
+        return tagRepository.recountPostCounts();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,211 @@
+package cc.nilm.blog.service;
+
+import cc.nilm.blog.entity.Post;
+import cc.nilm.blog.event.CommentChangedEvent;
+import cc.nilm.blog.event.PostChangedEvent;
+import cc.nilm.blog.event.PostsImportedEvent;
+import cc.nilm.blog.event.PostViewsFlushedEvent;
+import cc.nilm.blog.repository.CommentRepository;
+import cc.nilm.blog.repository.PostRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 熱門文章排行：瀏覽、評論與發布時間各自貢獻分數，並隨時間指數衰減（半衰期 {@code app.trending.half-life}）。
+ * <p>
+ * 分數都換算到同一個基準時間 {@code origin}：在時間 t 發生、權重 w 的事件記為 w·2^((t - origin) / halfLife)。
+ * 所有文章隨時間衰減的比例相同，排名不受影響，因此不必定期重算每篇文章，分數也只會增加，
+ * 前 K 名可以用固定大小的有序集合增量維護。指數過大時把基準時間移到現在並整體縮放。
+ * <p>
+ * 啟動時從資料庫重建。資料庫只有累計瀏覽數，重建時視為發生在發布當下；之後的瀏覽依
+ * {@link PostViewsFlushedEvent} 以實際時間計入。各副本只看得到自己的瀏覽，排名大致相同但不完全一致。
+ */
+@Service
+@Slf4j
+public class TrendingService {
+
+    static final double VIEW_WEIGHT = 1.0;
+    static final double COMMENT_WEIGHT = 5.0;
+    static final double PUBLISH_WEIGHT = 20.0;
+    private static final double MAX_EXPONENT = 100.0;
+    // 超過這麼多個半衰期的評論貢獻不到百萬分之一，重建時不必載入
+    private static final int COMMENT_WINDOW_HALF_LIVES = 20;
+
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final Duration halfLife;
+    private final int capacity;
+    private final Clock clock;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Double> scores = new HashMap<>();
+    private final TreeSet<Ranked> top = new TreeSet<>(Comparator.comparingDouble(Ranked::score).reversed()
+            .thenComparing(Ranked::postId));
+    private LocalDateTime origin;
+
+    @Autowired
+    public TrendingService(PostRepository postRepository,
+                           CommentRepository commentRepository,
+                           @Value("${app.trending.half-life:PT24H}") Duration halfLife,
+                           @Value("${app.trending.capacity:100}") int capacity) {
+        this(postRepository, commentRepository, halfLife, capacity, Clock.systemDefaultZone());
+    }
+
+    TrendingService(PostRepository postRepository, CommentRepository commentRepository,
+                    Duration halfLife, int capacity, Clock clock) {
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        this.halfLife = halfLife;
+        this.capacity = capacity;
+        this.clock = clock;
+        this.origin = LocalDateTime.now(clock);
+    }
+
+    @EventListener({ApplicationReadyEvent.class, PostsImportedEvent.class})
+    public void rebuild() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<Object[]> posts = postRepository.findPublishedActivity();
+        List<Object[]> comments = commentRepository.findPublishedCommentTimesSince(
+                now.minus(halfLife.multipliedBy(COMMENT_WINDOW_HALF_LIVES)));
+
+        lock.writeLock().lock();
+        try {
+            scores.clear();
+            top.clear();
+            origin = now;
+            for (Object[] row : posts) {
+                LocalDateTime createdAt = (LocalDateTime) row[1];
+                long views = ((Number) row[2]).longValue();
+                scores.put((Long) row[0], (PUBLISH_WEIGHT + VIEW_WEIGHT * views) * decayed(createdAt));
+            }
+            for (Object[] row : comments) {
+                scores.computeIfPresent((Long) row[0], (id, score) -> score + COMMENT_WEIGHT * decayed((LocalDateTime) row[1]));
+            }
+            refillTop();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Trending ranking rebuilt with {} posts and {} recent comments", posts.size(), comments.size());
+    }
+
+    /**
+     * 目前分數最高的文章 ID，由高到低，最多 {@code app.trending.capacity} 篇。
+     */
+    public List<Long> topPostIds(int limit) {
+        lock.readLock().lock();
+        try {
+            List<Long> ids = new ArrayList<>(Math.min(limit, top.size()));
+            for (Ranked ranked : top) {
+                if (ids.size() == limit) break;
+                ids.add(ranked.postId());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onViewsFlushed(PostViewsFlushedEvent event) {
+        lock.writeLock().lock();
+        try {
+            double now = decayed(LocalDateTime.now(clock));
+            // 只計入已追蹤（已發布）的文章，草稿的瀏覽不會讓它進入排行
+            event.getViews().forEach((postId, views) -> addIfTracked(postId, VIEW_WEIGHT * views * now));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentChanged(CommentChangedEvent event) {
+        if (!event.isCreated()) return;
+        lock.writeLock().lock();
+        try {
+            addIfTracked(event.getPostId(), COMMENT_WEIGHT * decayed(LocalDateTime.now(clock)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            Post post = event.getPost();
+            if (event.isDeleted() || !post.isPublished()) {
+                Double removed = scores.remove(event.getPostId());
+                if (removed != null && top.remove(new Ranked(event.getPostId(), removed))) refillTop();
+            } else if (!scores.containsKey(post.getId())) {
+                // 新發布（或重新發布）的文章以發布時間起算
+                double score = (PUBLISH_WEIGHT + VIEW_WEIGHT * post.getViewCount()) * decayed(post.getCreatedAt());
+                update(post.getId(), score);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addIfTracked(Long postId, double amount) {
+        Double current = scores.get(postId);
+        if (current != null) update(postId, current + amount);
+    }
+
+    // 分數只增不減，所以只有被更新的文章可能擠進前 K 名
+    private void update(Long postId, double score) {
+        Double previous = scores.put(postId, score);
+        if (previous != null) top.remove(new Ranked(postId, previous));
+        top.add(new Ranked(postId, score));
+        if (top.size() > capacity) top.pollLast();
+    }
+
+    private void refillTop() {
+        top.clear();
+        scores.forEach((postId, score) -> {
+            top.add(new Ranked(postId, score));
+            if (top.size() > capacity) top.pollLast();
+        });
+    }
+
+    // 以 origin 為基準的時間權重；指數過大時先把基準移到現在
+    private double decayed(LocalDateTime time) {
+        if (time == null) return 0.0;
+        double exponent = exponent(time);
+        if (exponent > MAX_EXPONENT) {
+            rebase(LocalDateTime.now(clock));
+            exponent = exponent(time);
+        }
+        return Math.pow(2.0, exponent);
+    }
+
+    private double exponent(LocalDateTime time) {
+        return (double) Duration.between(origin, time).toMillis() / halfLife.toMillis();
+    }
+
+    private void rebase(LocalDateTime newOrigin) {
+        double scale = Math.pow(2.0, -exponent(newOrigin));
+        scores.replaceAll((postId, score) -> score * scale);
+        origin = newOrigin;
+        refillTop();
+    }
+
+    private record Ranked(Long postId, double score) {
+    }
+}
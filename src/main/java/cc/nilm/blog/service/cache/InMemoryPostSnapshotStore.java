@@ -0,0 +1,33 @@
+package cc.nilm.blog.service.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 行程內的第二層快取替身，用於測試與本機開發；不限大小也不過期，正式環境請換成共用的外部儲存。
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.post.second-tier", havingValue = "in-memory")
+public class InMemoryPostSnapshotStore implements PostSnapshotStore {
+
+    private final Map<Long, PostSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<PostSnapshot> get(Long postId) {
+        return Optional.ofNullable(snapshots.get(postId));
+    }
+
+    @Override
+    public void put(PostSnapshot snapshot) {
+        snapshots.put(snapshot.id(), snapshot);
+    }
+
+    @Override
+    public void evict(Long postId) {
+        snapshots.remove(postId);
+    }
+}
@@ -0,0 +1,90 @@
+package cc.nilm.blog.service.cache;
+
+import cc.nilm.blog.dto.PostCacheStats;
+import cc.nilm.blog.entity.Post;
+import cc.nilm.blog.event.CommentChangedEvent;
+import cc.nilm.blog.event.PostChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 文章詳情的兩層 read-through 快取。
+ * <p>
+ * 第一層是本機的 Caffeine，依筆數與存活時間淘汰；第二層是選用的 {@link PostSnapshotStore}。
+ * 兩層都只保存 {@link PostSnapshot}，讀取時回傳新的 detached 物件。
+ * 本機的文章、評論異動提交後立即失效；其他副本的異動只能等第一層過期，因此存活時間不宜設太長。
+ */
+@Component
+public class PostCache {
+
+    private final Cache<Long, PostSnapshot> local;
+    private final PostSnapshotStore secondTier;
+    private final LongAdder secondTierHits = new LongAdder();
+    private final LongAdder secondTierMisses = new LongAdder();
+
+    public PostCache(@Value("${app.cache.post.max-size:1000}") long maxSize,
+                     @Value("${app.cache.post.ttl:60s}") Duration ttl,
+                     ObjectProvider<PostSnapshotStore> secondTier) {
+        this.local = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.secondTier = secondTier.getIfAvailable();
+    }
+
+    /**
+     * 依序查本機、第二層，都沒有時呼叫 loader 並回填兩層；文章不存在時不快取。
+     * 同一篇文章同時未命中時只會有一個請求執行 loader。
+     */
+    public Optional<Post> get(Long postId, Supplier<Optional<PostSnapshot>> loader) {
+        PostSnapshot snapshot = local.get(postId, id -> loadThroughSecondTier(id, loader));
+        return Optional.ofNullable(snapshot).map(PostSnapshot::toPost);
+    }
+
+    public void evict(Long postId) {
+        // 先等進行中的載入完成再移除第一層，之後才清第二層，避免載入到一半的舊內容被回填
+        local.invalidate(postId);
+        if (secondTier != null) secondTier.evict(postId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        evict(event.getPostId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentChanged(CommentChangedEvent event) {
+        evict(event.getPostId());
+    }
+
+    public PostCacheStats stats() {
+        CacheStats stats = local.stats();
+        return new PostCacheStats(local.estimatedSize(), stats.hitCount(), stats.missCount(), stats.evictionCount(),
+                stats.hitRate(), secondTier != null, secondTierHits.sum(), secondTierMisses.sum());
+    }
+
+    private PostSnapshot loadThroughSecondTier(Long postId, Supplier<Optional<PostSnapshot>> loader) {
+        if (secondTier != null) {
+            Optional<PostSnapshot> shared = secondTier.get(postId);
+            if (shared.isPresent()) {
+                secondTierHits.increment();
+                return shared.get();
+            }
+            secondTierMisses.increment();
+        }
+        PostSnapshot loaded = loader.get().orElse(null);
+        if (loaded != null && secondTier != null) secondTier.put(loaded);
+        return loaded;
+    }
+}
@@ -0,0 +1,188 @@
+package cc.nilm.blog.service.cache;
+
+import cc.nilm.blog.entity.Category;
+import cc.nilm.blog.entity.Comment;
+import cc.nilm.blog.entity.Post;
+import cc.nilm.blog.entity.Role;
+import cc.nilm.blog.entity.Tag;
+import cc.nilm.blog.entity.TocEntry;
+import cc.nilm.blog.entity.User;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 文章詳情（含作者、分類、標籤與評論）的不可變快照，供快取保存。
+ * <p>
+ * 快取只保存快照，不保存 Hibernate 管理的實體；每次讀取都以 {@link #toPost()} 產生一份新的 detached 物件，
+ * 呼叫端修改回傳值不會影響快取內容。密碼等不會輸出到 API 的欄位不進入快照。
+ */
+public record PostSnapshot(
+        Long id,
+        String title,
+        String content,
+        String contentHtml,
+        List<TocEntry> toc,
+        Integer readingTimeMinutes,
+        String excerpt,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        boolean published,
+        LocalDateTime publishAt,
+        long viewCount,
+        UserSnapshot author,
+        CategorySnapshot category,
+        List<TagSnapshot> tags,
+        List<CommentSnapshot> comments) implements Serializable {
+
+    public PostSnapshot {
+        toc = toc == null ? null : List.copyOf(toc);
+        tags = List.copyOf(tags);
+        comments = List.copyOf(comments);
+    }
+
+    /**
+     * 需在交易內呼叫，以便載入延遲的標籤與評論集合。
+     */
+    public static PostSnapshot of(Post post) {
+        Map<Long, CommentSnapshot> commentsById = new HashMap<>();
+        return new PostSnapshot(
+                post.getId(),
+                post.getTitle(),
+                post.getContent(),
+                post.getContentHtml(),
+                post.getToc(),
+                post.getReadingTimeMinutes(),
+                post.getExcerpt(),
+                post.getCreatedAt(),
+                post.getUpdatedAt(),
+                post.isPublished(),
+                post.getPublishAt(),
+                post.getViewCount(),
+                UserSnapshot.of(post.getAuthor()),
+                CategorySnapshot.of(post.getCategory()),
+                post.getTags().stream().map(TagSnapshot::of).toList(),
+                post.getComments().stream().map(comment -> CommentSnapshot.of(comment, commentsById)).toList());
+    }
+
+    public Post toPost() {
+        Post post = new Post();
+        post.setId(id);
+        post.setTitle(title);
+        post.setContent(content);
+        post.setContentHtml(contentHtml);
+        post.setToc(toc == null ? null : toc.stream()
+                .map(entry -> new TocEntry(entry.getLevel(), entry.getId(), entry.getText())).toList());
+        post.setReadingTimeMinutes(readingTimeMinutes);
+        post.setExcerpt(excerpt);
+        post.setCreatedAt(createdAt);
+        post.setUpdatedAt(updatedAt);
+        post.setPublished(published);
+        post.setPublishAt(publishAt);
+        post.setViewCount(viewCount);
+        post.setAuthor(author == null ? null : author.toUser());
+        post.setCategory(category == null ? null : category.toCategory());
+
+        Set<Tag> tagSet = new LinkedHashSet<>();
+        tags.forEach(tag -> tagSet.add(tag.toTag()));
+        post.setTags(tagSet);
+
+        Map<Long, Comment> copies = new HashMap<>();
+        Set<Comment> commentSet = new LinkedHashSet<>();
+        comments.forEach(comment -> commentSet.add(comment.toComment(post, copies)));
+        post.setComments(commentSet);
+        return post;
+    }
+
+    public record UserSnapshot(Long id, String username, String email, String fullName, String bio,
+                               String profileImage, boolean active, List<RoleSnapshot> roles) implements Serializable {
+
+        public UserSnapshot {
+            roles = List.copyOf(roles);
+        }
+
+        static UserSnapshot of(User user) {
+            if (user == null) return null;
+            return new UserSnapshot(user.getId(), user.getUsername(), user.getEmail(), user.getFullName(),
+                    user.getBio(), user.getProfileImage(), user.isActive(),
+                    user.getRoles().stream().map(role -> new RoleSnapshot(role.getId(), role.getName())).toList());
+        }
+
+        User toUser() {
+            User user = new User();
+            user.setId(id);
+            user.setUsername(username);
+            user.setEmail(email);
+            user.setFullName(fullName);
+            user.setBio(bio);
+            user.setProfileImage(profileImage);
+            user.setActive(active);
+            Set<Role> roleSet = new LinkedHashSet<>();
+            roles.forEach(role -> roleSet.add(new Role(role.id(), role.name())));
+            user.setRoles(roleSet);
+            return user;
+        }
+    }
+
+    public record RoleSnapshot(Long id, Role.ERole name) implements Serializable {
+    }
+
+    public record CategorySnapshot(Long id, String name, String description) implements Serializable {
+
+        static CategorySnapshot of(Category category) {
+            return category == null ? null : new CategorySnapshot(category.getId(), category.getName(), category.getDescription());
+        }
+
+        Category toCategory() {
+            Category category = new Category();
+            category.setId(id);
+            category.setName(name);
+            category.setDescription(description);
+            return category;
+        }
+    }
+
+    public record TagSnapshot(Long id, String name, String color) implements Serializable {
+
+        static TagSnapshot of(Tag tag) {
+            return new TagSnapshot(tag.getId(), tag.getName(), tag.getColor());
+        }
+
+        Tag toTag() {
+            return new Tag(id, name, color);
+        }
+    }
+
+    public record CommentSnapshot(Long id, String content, LocalDateTime createdAt, UserSnapshot author,
+                                  CommentSnapshot parent) implements Serializable {
+
+        static CommentSnapshot of(Comment comment, Map<Long, CommentSnapshot> seen) {
+            if (comment == null) return null;
+            CommentSnapshot known = seen.get(comment.getId());
+            if (known != null) return known;
+            CommentSnapshot snapshot = new CommentSnapshot(comment.getId(), comment.getContent(), comment.getCreatedAt(),
+                    UserSnapshot.of(comment.getAuthor()), of(comment.getParent(), seen));
+            seen.put(comment.getId(), snapshot);
+            return snapshot;
+        }
+
+        Comment toComment(Post post, Map<Long, Comment> copies) {
+            Comment known = copies.get(id);
+            if (known != null) return known;
+            Comment comment = new Comment();
+            comment.setId(id);
+            comment.setContent(content);
+            comment.setCreatedAt(createdAt);
+            comment.setAuthor(author == null ? null : author.toUser());
+            comment.setPost(post);
+            comment.setParent(parent == null ? null : parent.toComment(post, copies));
+            copies.put(id, comment);
+            return comment;
+        }
+    }
+}
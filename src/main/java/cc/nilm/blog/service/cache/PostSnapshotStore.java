@@ -0,0 +1,16 @@
+package cc.nilm.blog.service.cache;
+
+import java.util.Optional;
+
+/**
+ * {@link PostCache} 的第二層快取，通常是多個副本共用的外部儲存（例如 Redis）。
+ * 未設定實作時只使用本機的第一層。
+ */
+public interface PostSnapshotStore {
+
+    Optional<PostSnapshot> get(Long postId);
+
+    void put(PostSnapshot snapshot);
+
+    void evict(Long postId);
+}
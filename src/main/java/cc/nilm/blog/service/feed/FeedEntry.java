@@ -0,0 +1,14 @@
+package cc.nilm.blog.service.feed;
+
+import java.time.LocalDateTime;
+
+/**
+ * 訂閱內容中的一篇文章，只含輸出需要的欄位。
+ */
+public record FeedEntry(Long id, String title, String summary, String authorName,
+                        LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+    public LocalDateTime modifiedAt() {
+        return updatedAt != null ? updatedAt : createdAt;
+    }
+}
@@ -0,0 +1,20 @@
+package cc.nilm.blog.service.feed;
+
+/**
+ * 訂閱格式。
+ */
+public enum FeedFormat {
+
+    ATOM("application/atom+xml;charset=UTF-8"),
+    RSS("application/rss+xml;charset=UTF-8");
+
+    private final String contentType;
+
+    FeedFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+}
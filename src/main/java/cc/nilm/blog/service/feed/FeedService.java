@@ -0,0 +1,242 @@
+package cc.nilm.blog.service.feed;
+
+import cc.nilm.blog.entity.Post;
+import cc.nilm.blog.event.PostChangedEvent;
+import cc.nilm.blog.event.PostsImportedEvent;
+import cc.nilm.blog.repository.CategoryRepository;
+import cc.nilm.blog.repository.PostRepository;
+import cc.nilm.blog.repository.TagRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 全站、分類與標籤的 RSS/Atom 訂閱。
+ * <p>
+ * 每份訂閱只在內容可能改變後的第一次請求時查詢並序列化，之後直接回傳快取的位元組與 ETag。
+ * PostService 儲存或刪除文章後（{@link PostChangedEvent}）只失效受影響的訂閱：已包含該文章的，
+ * 以及文章發布後可能擠進前 {@code app.feed.size} 篇的。其他副本的異動靠 {@code app.feed.ttl} 過期。
+ */
+@Service
+public class FeedService {
+
+    enum Scope {
+        SITE,
+        CATEGORY,
+        TAG
+    }
+
+    record FeedKey(Scope scope, Long id, FeedFormat format) {
+    }
+
+    // oldestCreatedAt 為 null 代表未滿 size 篇，任何新發布的文章都會出現在這份訂閱
+    private record Entry(RenderedFeed feed, Set<Long> postIds, LocalDateTime oldestCreatedAt) {
+    }
+
+    private static final DateTimeFormatter RFC_1123 = DateTimeFormatter.RFC_1123_DATE_TIME;
+
+    private final PostRepository postRepository;
+    private final CategoryRepository categoryRepository;
+    private final TagRepository tagRepository;
+    private final String siteUrl;
+    private final String siteTitle;
+    private final int size;
+    private final Cache<FeedKey, Entry> cache;
+
+    public FeedService(PostRepository postRepository,
+                       CategoryRepository categoryRepository,
+                       TagRepository tagRepository,
+                       @Value("${app.frontend.url}") String siteUrl,
+                       @Value("${app.feed.title:部落格系統}") String siteTitle,
+                       @Value("${app.feed.size:20}") int size,
+                       @Value("${app.feed.ttl:PT10M}") Duration ttl) {
+        this.postRepository = postRepository;
+        this.categoryRepository = categoryRepository;
+        this.tagRepository = tagRepository;
+        this.siteUrl = siteUrl.endsWith("/") ? siteUrl.substring(0, siteUrl.length() - 1) : siteUrl;
+        this.siteTitle = siteTitle;
+        this.size = size;
+        this.cache = Caffeine.newBuilder().maximumSize(1000).expireAfterWrite(ttl).build();
+    }
+
+    public RenderedFeed siteFeed(FeedFormat format) {
+        return feed(new FeedKey(Scope.SITE, null, format)).orElseThrow();
+    }
+
+    /**
+     * 分類不存在時為 empty。
+     */
+    public Optional<RenderedFeed> categoryFeed(Long categoryId, FeedFormat format) {
+        return feed(new FeedKey(Scope.CATEGORY, categoryId, format));
+    }
+
+    /**
+     * 標籤不存在時為 empty。
+     */
+    public Optional<RenderedFeed> tagFeed(Long tagId, FeedFormat format) {
+        return feed(new FeedKey(Scope.TAG, tagId, format));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        Post post = event.getPost();
+        boolean published = !event.isDeleted() && post.isPublished();
+        cache.asMap().entrySet().removeIf(cached -> {
+            Entry entry = cached.getValue();
+            if (entry.postIds().contains(event.getPostId())) return true;
+            // 新發布的文章：分類與標籤的歸屬不查，只要夠新就失效，下次請求重新查詢
+            return published && (entry.oldestCreatedAt() == null || post.getCreatedAt() == null
+                    || !post.getCreatedAt().isBefore(entry.oldestCreatedAt()));
+        });
+    }
+
+    @EventListener
+    public void onPostsImported(PostsImportedEvent event) {
+        cache.invalidateAll();
+    }
+
+    private Optional<RenderedFeed> feed(FeedKey key) {
+        // 找不到分類或標籤時 loader 回傳 null，不會被快取
+        return Optional.ofNullable(cache.get(key, this::load)).map(Entry::feed);
+    }
+
+    private Entry load(FeedKey key) {
+        String title;
+        String link;
+        String self;
+        List<FeedEntry> entries;
+        switch (key.scope()) {
+            case CATEGORY -> {
+                Optional<String> name = categoryRepository.findNameById(key.id());
+                if (name.isEmpty()) return null;
+                title = siteTitle + " - " + name.get();
+                link = siteUrl + "/category/" + key.id();
+                self = siteUrl + "/api/categories/" + key.id() + "/feed";
+                entries = postRepository.findFeedEntriesByCategoryId(key.id(), Limit.of(size));
+            }
+            case TAG -> {
+                Optional<String> name = tagRepository.findNameById(key.id());
+                if (name.isEmpty()) return null;
+                title = siteTitle + " - " + name.get();
+                link = siteUrl + "/tag/" + key.id();
+                self = siteUrl + "/api/tags/" + key.id() + "/feed";
+                entries = postRepository.findFeedEntriesByTagId(key.id(), Limit.of(size));
+            }
+            default -> {
+                title = siteTitle;
+                link = siteUrl + "/";
+                self = siteUrl + "/feed.xml";
+                entries = postRepository.findFeedEntries(Limit.of(size));
+            }
+        }
+
+        Instant lastModified = entries.stream().map(FeedEntry::modifiedAt).map(FeedService::toInstant)
+                .max(Instant::compareTo).orElse(Instant.EPOCH).truncatedTo(ChronoUnit.SECONDS);
+        String xml = key.format() == FeedFormat.RSS
+                ? rss(title, link, entries, lastModified)
+                : atom(title, link, self, entries, lastModified);
+        byte[] body = xml.getBytes(StandardCharsets.UTF_8);
+
+        RenderedFeed feed = new RenderedFeed(body, key.format().contentType(), "\"" + digest(body) + "\"", lastModified);
+        Set<Long> postIds = entries.stream().map(FeedEntry::id).collect(Collectors.toUnmodifiableSet());
+        LocalDateTime oldest = entries.size() < size ? null : entries.get(entries.size() - 1).createdAt();
+        return new Entry(feed, postIds, oldest);
+    }
+
+    private String atom(String title, String link, String self, List<FeedEntry> entries, Instant updated) {
+        StringBuilder xml = new StringBuilder(1024 + entries.size() * 512)
+                .append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<feed xmlns=\"http://www.w3.org/2005/Atom\">\n")
+                .append("  <title>").append(escape(title)).append("</title>\n")
+                .append("  <link href=\"").append(escape(link)).append("\"/>\n")
+                .append("  <link rel=\"self\" href=\"").append(escape(self)).append("\"/>\n")
+                .append("  <id>").append(escape(link)).append("</id>\n")
+                .append("  <updated>").append(updated).append("</updated>\n");
+        for (FeedEntry entry : entries) {
+            String url = siteUrl + "/post/" + entry.id();
+            xml.append("  <entry>\n")
+                    .append("    <title>").append(escape(entry.title())).append("</title>\n")
+                    .append("    <link href=\"").append(escape(url)).append("\"/>\n")
+                    .append("    <id>").append(escape(url)).append("</id>\n")
+                    .append("    <published>").append(toInstant(entry.createdAt())).append("</published>\n")
+                    .append("    <updated>").append(toInstant(entry.modifiedAt())).append("</updated>\n")
+                    .append("    <author><name>").append(escape(entry.authorName())).append("</name></author>\n")
+                    .append("    <summary>").append(escape(entry.summary())).append("</summary>\n")
+                    .append("  </entry>\n");
+        }
+        return xml.append("</feed>\n").toString();
+    }
+
+    private String rss(String title, String link, List<FeedEntry> entries, Instant updated) {
+        StringBuilder xml = new StringBuilder(1024 + entries.size() * 512)
+                .append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<rss version=\"2.0\">\n<channel>\n")
+                .append("  <title>").append(escape(title)).append("</title>\n")
+                .append("  <link>").append(escape(link)).append("</link>\n")
+                .append("  <description>").append(escape(title)).append("</description>\n")
+                .append("  <lastBuildDate>").append(RFC_1123.format(updated.atOffset(ZoneOffset.UTC))).append("</lastBuildDate>\n");
+        for (FeedEntry entry : entries) {
+            String url = siteUrl + "/post/" + entry.id();
+            xml.append("  <item>\n")
+                    .append("    <title>").append(escape(entry.title())).append("</title>\n")
+                    .append("    <link>").append(escape(url)).append("</link>\n")
+                    .append("    <guid isPermaLink=\"true\">").append(escape(url)).append("</guid>\n")
+                    .append("    <pubDate>").append(RFC_1123.format(toInstant(entry.createdAt()).atOffset(ZoneOffset.UTC))).append("</pubDate>\n")
+                    .append("    <description>").append(escape(entry.summary())).append("</description>\n")
+                    .append("  </item>\n");
+        }
+        return xml.append("</channel>\n</rss>\n").toString();
+    }
+
+    // 文章時間以伺服器時區的 LocalDateTime 儲存
+    private static Instant toInstant(LocalDateTime time) {
+        return time == null ? Instant.EPOCH : time.atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    private static String escape(String text) {
+        if (text == null) return "";
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&' -> escaped.append("&amp;");
+                case '<' -> escaped.append("&lt;");
+                case '>' -> escaped.append("&gt;");
+                case '"' -> escaped.append("&quot;");
+                default -> {
+                    // XML 1.0 不允許的控制字元直接略過
+                    if (c >= 0x20 || c == '\n' || c == '\r' || c == '\t') escaped.append(c);
+                }
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static String digest(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body), 0, 12);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
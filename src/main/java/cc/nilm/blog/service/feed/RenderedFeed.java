@@ -0,0 +1,9 @@
+package cc.nilm.blog.service.feed;
+
+import java.time.Instant;
+
+/**
+ * 已序列化的訂閱內容。ETag 由內容雜湊而來，lastModified 為其中最新文章的修改時間。
+ */
+public record RenderedFeed(byte[] body, String contentType, String etag, Instant lastModified) {
+}
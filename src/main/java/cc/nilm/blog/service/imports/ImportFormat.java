@@ -0,0 +1,17 @@
+package cc.nilm.blog.service.imports;
+
+/**
+ * 支援的匯入檔格式。
+ */
+public enum ImportFormat {
+
+    /** 每行一篇文章的 JSON 物件（欄位同 {@link ImportedPost}，標籤為字串陣列）。 */
+    JSONL,
+
+    /** 內含 Markdown 檔的 zip，每個檔案開頭可有 {@code ---} 包住的 front matter。 */
+    MARKDOWN_ZIP;
+
+    public static ImportFormat fromFileName(String fileName) {
+        return fileName.toLowerCase().endsWith(".zip") ? MARKDOWN_ZIP : JSONL;
+    }
+}
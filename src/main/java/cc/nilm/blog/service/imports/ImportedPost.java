@@ -0,0 +1,20 @@
+package cc.nilm.blog.service.imports;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 匯入檔中的一篇文章。作者、分類與標籤以名稱表示，寫入時再整批對應成 ID；
+ * author 為 null 時使用匯入時指定的預設作者，createdAt 為 null 時使用匯入當下的時間。
+ */
+public record ImportedPost(String title, String content, boolean published, LocalDateTime createdAt,
+                           String author, String category, List<String> tags, List<ImportedComment> comments) {
+
+    public ImportedPost {
+        tags = tags == null ? List.of() : List.copyOf(tags);
+        comments = comments == null ? List.of() : List.copyOf(comments);
+    }
+
+    public record ImportedComment(String author, String content, LocalDateTime createdAt) {
+    }
+}
@@ -0,0 +1,162 @@
+package cc.nilm.blog.service.imports;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * 逐篇讀取匯入檔，不把整個檔案載入記憶體。
+ * <p>
+ * {@link #next()} 在檔案結束時回傳 null；單篇格式錯誤時丟出 {@link InvalidRecordException}，
+ * 呼叫端記錄後可以繼續讀下一篇。
+ */
+public abstract class PostArchiveReader implements AutoCloseable {
+
+    public static PostArchiveReader open(InputStream in, ImportFormat format, ObjectMapper objectMapper) {
+        return format == ImportFormat.MARKDOWN_ZIP ? new MarkdownZipReader(in) : new JsonLinesReader(in, objectMapper);
+    }
+
+    public abstract ImportedPost next() throws IOException;
+
+    @Override
+    public abstract void close() throws IOException;
+
+    public static class InvalidRecordException extends RuntimeException {
+        public InvalidRecordException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    private static final class JsonLinesReader extends PostArchiveReader {
+
+        private final BufferedReader reader;
+        private final ObjectMapper objectMapper;
+        private int lineNumber;
+
+        JsonLinesReader(InputStream in, ObjectMapper objectMapper) {
+            this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public ImportedPost next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                lineNumber++;
+                if (line == null) return null;
+            } while (line.isBlank());
+            try {
+                return objectMapper.readValue(line, ImportedPost.class);
+            } catch (JsonProcessingException ex) {
+                throw new InvalidRecordException("line " + lineNumber + ": " + ex.getOriginalMessage(), ex);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    private static final class MarkdownZipReader extends PostArchiveReader {
+
+        private final ZipInputStream zip;
+
+        MarkdownZipReader(InputStream in) {
+            this.zip = new ZipInputStream(in, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public ImportedPost next() throws IOException {
+            ZipEntry entry;
+            do {
+                entry = zip.getNextEntry();
+                if (entry == null) return null;
+            } while (entry.isDirectory() || !entry.getName().toLowerCase().endsWith(".md"));
+
+            String text = new String(zip.readAllBytes(), StandardCharsets.UTF_8);
+            try {
+                return parse(baseName(entry.getName()), text);
+            } catch (RuntimeException ex) {
+                throw new InvalidRecordException(entry.getName() + ": " + ex.getMessage(), ex);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            zip.close();
+        }
+
+        // front matter 只支援單行的 key: value，標籤可寫成 [a, b] 或 a, b
+        static ImportedPost parse(String fallbackTitle, String text) {
+            Map<String, String> meta = new HashMap<>();
+            String body = text;
+            if (text.startsWith("---")) {
+                int end = text.indexOf("\n---", 3);
+                if (end > 0) {
+                    for (String line : text.substring(text.indexOf('\n') + 1, end).split("\n")) {
+                        int colon = line.indexOf(':');
+                        if (colon > 0) meta.put(line.substring(0, colon).trim(), unquote(line.substring(colon + 1).trim()));
+                    }
+                    int bodyStart = text.indexOf('\n', end + 4);
+                    body = bodyStart < 0 ? "" : text.substring(bodyStart + 1);
+                }
+            }
+            return new ImportedPost(
+                    meta.getOrDefault("title", fallbackTitle),
+                    body,
+                    Boolean.parseBoolean(meta.getOrDefault("published", "true")),
+                    parseTime(meta.get("createdAt") != null ? meta.get("createdAt") : meta.get("date")),
+                    meta.get("author"),
+                    meta.get("category"),
+                    parseList(meta.get("tags")),
+                    List.of());
+        }
+
+        private static List<String> parseList(String value) {
+            if (value == null || value.isBlank()) return List.of();
+            String list = value.startsWith("[") && value.endsWith("]") ? value.substring(1, value.length() - 1) : value;
+            List<String> items = new ArrayList<>();
+            Arrays.stream(list.split(",")).map(item -> unquote(item.trim())).filter(item -> !item.isEmpty()).forEach(items::add);
+            return items;
+        }
+
+        private static LocalDateTime parseTime(String value) {
+            if (value == null || value.isBlank()) return null;
+            try {
+                return LocalDateTime.parse(value.replace(' ', 'T'));
+            } catch (DateTimeParseException ex) {
+                return LocalDate.parse(value).atStartOfDay();
+            }
+        }
+
+        private static String unquote(String value) {
+            if (value.length() >= 2 && (value.startsWith("\"") && value.endsWith("\"")
+                    || value.startsWith("'") && value.endsWith("'"))) {
+                return value.substring(1, value.length() - 1);
+            }
+            return value;
+        }
+
+        private static String baseName(String path) {
+            String name = path.substring(path.lastIndexOf('/') + 1);
+            return name.substring(0, name.length() - ".md".length());
+        }
+    }
+}
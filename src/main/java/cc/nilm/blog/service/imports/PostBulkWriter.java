@@ -0,0 +1,189 @@
+package cc.nilm.blog.service.imports;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 以 JDBC 批次寫入一批匯入的文章，需在交易內呼叫。
+ * <p>
+ * 作者、分類與標籤先以名稱整批查詢，缺少的分類與標籤整批新增。主鍵與 Hibernate 共用 pooled 序列，
+ * 每次 nextval 保留一段 ID，因此寫入前就知道所有 ID。文章、文章與標籤的關聯、評論在 PostgreSQL 上以 COPY 寫入
+ * （{@code app.import.use-copy}），其他資料庫改用 JDBC 批次。
+ */
+@Component
+@Slf4j
+public class PostBulkWriter {
+
+    // 需與實體 @SequenceGenerator 的 allocationSize 一致
+    static final int ID_BLOCK_SIZE = 50;
+
+    private static final String INSERT_POST = "INSERT INTO posts (id, title, content, published, created_at, view_count, user_id, category_id) " +
+            "VALUES (?, ?, ?, ?, ?, 0, ?, ?)";
+    private static final String INSERT_POST_TAG = "INSERT INTO post_tags (post_id, tag_id) VALUES (?, ?)";
+    private static final String INSERT_COMMENT = "INSERT INTO comments (id, content, created_at, post_id, user_id) VALUES (?, ?, ?, ?, ?)";
+    private static final String COPY_POSTS = "COPY posts (id, title, content, published, created_at, view_count, user_id, category_id) " +
+            "FROM STDIN WITH (FORMAT csv)";
+    private static final String COPY_POST_TAGS = "COPY post_tags (post_id, tag_id) FROM STDIN WITH (FORMAT csv)";
+    private static final String COPY_COMMENTS = "COPY comments (id, content, created_at, post_id, user_id) FROM STDIN WITH (FORMAT csv)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final boolean useCopy;
+
+    public PostBulkWriter(JdbcTemplate jdbcTemplate, @Value("${app.import.use-copy:true}") boolean useCopy) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.useCopy = useCopy;
+    }
+
+    /**
+     * 寫入一批文章，回傳寫入的筆數統計。找不到作者（含預設作者）的文章與評論會略過。
+     */
+    public BatchResult write(List<ImportedPost> posts, Long defaultAuthorId) {
+        Set<String> usernames = new LinkedHashSet<>();
+        Set<String> categoryNames = new LinkedHashSet<>();
+        Set<String> tagNames = new LinkedHashSet<>();
+        for (ImportedPost post : posts) {
+            if (post.author() != null) usernames.add(post.author());
+            if (post.category() != null && !post.category().isBlank()) categoryNames.add(post.category().trim());
+            post.tags().stream().map(String::trim).filter(tag -> !tag.isEmpty()).forEach(tagNames::add);
+            post.comments().stream().map(ImportedPost.ImportedComment::author).filter(author -> author != null).forEach(usernames::add);
+        }
+
+        Map<String, Long> users = findIds("SELECT id, username AS name FROM users WHERE username IN (:names)", usernames);
+        Map<String, Long> categories = findIds("SELECT id, name FROM categories WHERE name IN (:names)", categoryNames);
+        int categoriesCreated = createMissing("categories", categoryNames, categories);
+        Map<String, Long> tags = findIds("SELECT id, name FROM tags WHERE name IN (:names)", tagNames);
+        int tagsCreated = createMissing("tags", tagNames, tags);
+
+        List<ImportedPost> accepted = new ArrayList<>(posts.size());
+        List<Long> authorIds = new ArrayList<>(posts.size());
+        for (ImportedPost post : posts) {
+            Long authorId = post.author() == null ? defaultAuthorId : users.getOrDefault(post.author(), defaultAuthorId);
+            if (authorId == null || post.title() == null || post.title().isBlank()) continue;
+            accepted.add(post);
+            authorIds.add(authorId);
+        }
+        List<Long> postIds = allocateIds("posts_seq", accepted.size());
+
+        List<Object[]> postRows = new ArrayList<>(accepted.size());
+        List<Object[]> postTags = new ArrayList<>();
+        List<Object[]> comments = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < accepted.size(); i++) {
+            ImportedPost post = accepted.get(i);
+            Long postId = postIds.get(i);
+            postRows.add(new Object[]{postId, post.title(), post.content() == null ? "" : post.content(), post.published(),
+                    Timestamp.valueOf(post.createdAt() != null ? post.createdAt() : now), authorIds.get(i),
+                    post.category() == null ? null : categories.get(post.category().trim())});
+            post.tags().stream().map(String::trim).filter(tag -> !tag.isEmpty()).distinct()
+                    .forEach(tag -> postTags.add(new Object[]{postId, tags.get(tag)}));
+            for (ImportedPost.ImportedComment comment : post.comments()) {
+                Long authorId = comment.author() == null ? defaultAuthorId : users.getOrDefault(comment.author(), defaultAuthorId);
+                if (authorId == null || comment.content() == null) continue;
+                comments.add(new Object[]{null, comment.content(),
+                        Timestamp.valueOf(comment.createdAt() != null ? comment.createdAt() : now), postId, authorId});
+            }
+        }
+        List<Long> commentIds = allocateIds("comments_seq", comments.size());
+        for (int i = 0; i < comments.size(); i++) comments.get(i)[0] = commentIds.get(i);
+
+        boolean copy = useCopy && Boolean.TRUE.equals(jdbcTemplate.execute(
+                (ConnectionCallback<Boolean>) connection -> connection.isWrapperFor(PGConnection.class)));
+        insertRows(copy, COPY_POSTS, INSERT_POST, postRows);
+        insertRows(copy, COPY_POST_TAGS, INSERT_POST_TAG, postTags);
+        insertRows(copy, COPY_COMMENTS, INSERT_COMMENT, comments);
+
+        return new BatchResult(accepted.size(), posts.size() - accepted.size(), comments.size(),
+                categoriesCreated, tagsCreated, copy);
+    }
+
+    public record BatchResult(int posts, int skipped, int comments, int categoriesCreated, int tagsCreated,
+                              boolean usedCopy) {
+    }
+
+    private Map<String, Long> findIds(String sql, Collection<String> names) {
+        Map<String, Long> ids = new HashMap<>();
+        if (names.isEmpty()) return ids;
+        namedJdbcTemplate.query(sql, Map.of("names", names),
+                rs -> { ids.put(rs.getString("name"), rs.getLong("id")); });
+        return ids;
+    }
+
+    private int createMissing(String table, Set<String> names, Map<String, Long> ids) {
+        List<String> missing = names.stream().filter(name -> !ids.containsKey(name)).toList();
+        if (missing.isEmpty()) return 0;
+        List<Long> newIds = allocateIds(table + "_seq", missing.size());
+        List<Object[]> rows = new ArrayList<>(missing.size());
+        for (int i = 0; i < missing.size(); i++) {
+            rows.add(new Object[]{newIds.get(i), missing.get(i)});
+            ids.put(missing.get(i), newIds.get(i));
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO " + table + " (id, name) VALUES (?, ?)", rows);
+        return missing.size();
+    }
+
+    // 與 Hibernate 的 pooled optimizer 相同：nextval 回傳 v 代表保留 (v - 50, v]；全新序列第一次回傳 1，只取 1
+    private List<Long> allocateIds(String sequence, int count) {
+        List<Long> ids = new ArrayList<>(count);
+        while (ids.size() < count) {
+            long hi = jdbcTemplate.queryForObject("SELECT nextval('" + sequence + "')", Long.class);
+            for (long id = Math.max(1, hi - ID_BLOCK_SIZE + 1); id <= hi && ids.size() < count; id++) ids.add(id);
+        }
+        return ids;
+    }
+
+    private void insertRows(boolean copy, String copySql, String insertSql, List<Object[]> rows) {
+        if (rows.isEmpty()) return;
+        if (copy) {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                copy(connection, copySql, rows);
+                return null;
+            });
+        } else {
+            jdbcTemplate.batchUpdate(insertSql, rows);
+        }
+    }
+
+    private static void copy(Connection connection, String sql, List<Object[]> rows) throws SQLException {
+        StringBuilder csv = new StringBuilder();
+        for (Object[] row : rows) {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) csv.append(',');
+                appendCsv(csv, row[i]);
+            }
+            csv.append('\n');
+        }
+        try {
+            connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql, new StringReader(csv.toString()));
+        } catch (IOException ex) {
+            throw new SQLException("COPY failed", ex);
+        }
+    }
+
+    // null 為空欄位；其餘一律加引號，內容中的引號重複一次（CSV 規則，可包含換行）
+    private static void appendCsv(StringBuilder csv, Object value) {
+        if (value == null) return;
+        String text = value instanceof Timestamp timestamp ? timestamp.toLocalDateTime().toString() : value.toString();
+        csv.append('"').append(text.replace("\"", "\"\"")).append('"');
+    }
+}
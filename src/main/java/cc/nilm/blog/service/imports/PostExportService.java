@@ -0,0 +1,89 @@
+package cc.nilm.blog.service.imports;
+
+import cc.nilm.blog.repository.CommentRepository;
+import cc.nilm.blog.repository.PostRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * 匯出全站文章（含分類、標籤與評論）為 JSON lines，每行一個 {@link ImportedPost}，可直接再由匯入功能讀回。
+ * <p>
+ * 文章以單向游標逐筆讀取，每 {@value #CHUNK_SIZE} 篇一次查回標籤與評論、寫出後清空持久化內容，
+ * 記憶體用量與資料庫大小無關。
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PostExportService {
+
+    static final int CHUNK_SIZE = 100;
+
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 寫出所有文章，回傳篇數。不會關閉 out。
+     */
+    @Transactional(readOnly = true)
+    public long exportArchive(OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        long count = 0;
+        List<Object[]> chunk = new ArrayList<>(CHUNK_SIZE);
+        try (Stream<Object[]> rows = postRepository.streamExportRows()) {
+            Iterator<Object[]> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == CHUNK_SIZE) {
+                    count += writeChunk(chunk, out);
+                    chunk.clear();
+                }
+            }
+            count += writeChunk(chunk, out);
+        }
+        out.flush();
+        log.info("Exported {} posts in {} ms", count, (System.nanoTime() - start) / 1_000_000);
+        return count;
+    }
+
+    private int writeChunk(List<Object[]> chunk, OutputStream out) throws IOException {
+        if (chunk.isEmpty()) return 0;
+        List<Long> postIds = chunk.stream().map(row -> (Long) row[0]).toList();
+
+        Map<Long, List<String>> tags = new HashMap<>();
+        for (Object[] row : postRepository.findTagNamesByPostIds(postIds)) {
+            tags.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        Map<Long, List<ImportedPost.ImportedComment>> comments = new HashMap<>();
+        for (Object[] row : commentRepository.findExportRowsByPostIds(postIds)) {
+            comments.computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                    .add(new ImportedPost.ImportedComment((String) row[1], (String) row[2], (LocalDateTime) row[3]));
+        }
+
+        for (Object[] row : chunk) {
+            Long postId = (Long) row[0];
+            ImportedPost post = new ImportedPost((String) row[1], (String) row[2], (Boolean) row[3], (LocalDateTime) row[4],
+                    (String) row[5], (String) row[6], tags.getOrDefault(postId, List.of()), comments.getOrDefault(postId, List.of()));
+            out.write(objectMapper.writeValueAsBytes(post));
+            out.write('\n');
+        }
+        // 查詢結果都是純量，清空只是保險，確保這一段不留下任何受管理的實體
+        entityManager.clear();
+        return chunk.size();
+    }
+}
@@ -0,0 +1,48 @@
+package cc.nilm.blog.service.imports;
+
+import cc.nilm.blog.dto.ImportReport;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 命令列匯入：以 {@code --app.import.file=posts.jsonl}（或 .zip）啟動時匯入後結束行程，例如
+ * <pre>
+ * java -jar blog.jar --spring.main.web-application-type=none --app.import.file=/data/old-blog.jsonl --app.import.author=admin
+ * </pre>
+ */
+@Component
+@ConditionalOnProperty(name = "app.import.file")
+@RequiredArgsConstructor
+@Slf4j
+public class PostImportRunner implements CommandLineRunner {
+
+    private final PostImportService postImportService;
+    private final ApplicationContext applicationContext;
+
+    @Value("${app.import.file}")
+    private String file;
+
+    @Value("${app.import.author:admin}")
+    private String defaultAuthor;
+
+    @Override
+    public void run(String... args) throws Exception {
+        Path path = Path.of(file);
+        ImportReport report;
+        try (InputStream in = Files.newInputStream(path)) {
+            report = postImportService.importArchive(in, ImportFormat.fromFileName(path.toString()), defaultAuthor);
+        }
+        log.info("Import finished: {}", report);
+        System.exit(SpringApplication.exit(applicationContext, () -> report.getErrors().isEmpty() ? 0 : 1));
+    }
+}
@@ -0,0 +1,120 @@
+package cc.nilm.blog.service.imports;
+
+import cc.nilm.blog.dto.ImportReport;
+import cc.nilm.blog.entity.User;
+import cc.nilm.blog.event.PostsImportedEvent;
+import cc.nilm.blog.repository.UserRepository;
+import cc.nilm.blog.service.PostRenderingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批次匯入文章（含評論、分類與標籤），供管理員 API 與命令列使用。
+ * <p>
+ * 串流讀取匯入檔，每 {@code app.import.batch-size} 篇為一個交易交給 {@link PostBulkWriter} 寫入；
+ * 某一批失敗時只回滾該批，已提交的批次保留。全部寫入後再分批渲染 Markdown，最後發布
+ * {@link PostsImportedEvent} 讓記憶體中的索引與排行重建。
+ */
+@Service
+@Slf4j
+public class PostImportService {
+
+    static final int MAX_REPORTED_ERRORS = 20;
+
+    private final PostBulkWriter bulkWriter;
+    private final UserRepository userRepository;
+    private final PostRenderingService postRenderingService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public PostImportService(PostBulkWriter bulkWriter,
+                             UserRepository userRepository,
+                             PostRenderingService postRenderingService,
+                             TransactionTemplate transactionTemplate,
+                             ApplicationEventPublisher eventPublisher,
+                             ObjectMapper objectMapper,
+                             @Value("${app.import.batch-size:500}") int batchSize) {
+        this.bulkWriter = bulkWriter;
+        this.userRepository = userRepository;
+        this.postRenderingService = postRenderingService;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @param defaultAuthor 匯入檔未指定作者或作者不存在時使用的使用者名稱
+     */
+    public ImportReport importArchive(InputStream in, ImportFormat format, String defaultAuthor) throws IOException {
+        Long defaultAuthorId = userRepository.findByUsername(defaultAuthor).map(User::getId)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown default author: " + defaultAuthor));
+
+        long start = System.nanoTime();
+        ImportReport report = new ImportReport(0, 0, 0, 0, 0, "batch", 0, 0, new ArrayList<>());
+        List<ImportedPost> batch = new ArrayList<>(batchSize);
+        try (PostArchiveReader reader = PostArchiveReader.open(in, format, objectMapper)) {
+            while (true) {
+                ImportedPost post;
+                try {
+                    post = reader.next();
+                } catch (PostArchiveReader.InvalidRecordException ex) {
+                    report.setSkipped(report.getSkipped() + 1);
+                    addError(report, ex.getMessage());
+                    continue;
+                }
+                if (post == null) break;
+                batch.add(post);
+                if (batch.size() == batchSize) {
+                    writeBatch(batch, defaultAuthorId, report);
+                    batch.clear();
+                }
+            }
+            writeBatch(batch, defaultAuthorId, report);
+        }
+
+        postRenderingService.backfill();
+        if (report.getPosts() > 0) eventPublisher.publishEvent(new PostsImportedEvent((int) report.getPosts()));
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        report.setElapsedMillis(elapsedMillis);
+        report.setPostsPerSecond(report.getPosts() * 1000.0 / elapsedMillis);
+        log.info("Imported {} posts and {} comments in {} ms ({} posts/s, mode {}), skipped {}",
+                report.getPosts(), report.getComments(), elapsedMillis,
+                String.format("%.1f", report.getPostsPerSecond()), report.getMode(), report.getSkipped());
+        return report;
+    }
+
+    private void writeBatch(List<ImportedPost> batch, Long defaultAuthorId, ImportReport report) {
+        if (batch.isEmpty()) return;
+        try {
+            PostBulkWriter.BatchResult result = transactionTemplate.execute(status -> bulkWriter.write(batch, defaultAuthorId));
+            report.setPosts(report.getPosts() + result.posts());
+            report.setSkipped(report.getSkipped() + result.skipped());
+            report.setComments(report.getComments() + result.comments());
+            report.setCategoriesCreated(report.getCategoriesCreated() + result.categoriesCreated());
+            report.setTagsCreated(report.getTagsCreated() + result.tagsCreated());
+            if (result.usedCopy()) report.setMode("copy");
+            log.debug("Imported batch of {} posts ({} total)", result.posts(), report.getPosts());
+        } catch (RuntimeException ex) {
+            report.setSkipped(report.getSkipped() + batch.size());
+            addError(report, "batch starting with \"" + batch.get(0).title() + "\": " + ex.getMessage());
+            log.warn("Failed to import batch of {} posts", batch.size(), ex);
+        }
+    }
+
+    private static void addError(ImportReport report, String message) {
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) report.getErrors().add(message);
+    }
+}
@@ -0,0 +1,11 @@
+package cc.nilm.blog.service.markdown;
+
+import cc.nilm.blog.entity.TocEntry;
+
+import java.util.List;
+
+/**
+ * Markdown 渲染結果：清理過的 HTML、目錄、預估閱讀分鐘數與純文字摘要。
+ */
+public record RenderedContent(String html, List<TocEntry> toc, int readingTimeMinutes, String excerpt) {
+}
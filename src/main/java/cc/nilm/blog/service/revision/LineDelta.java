@@ -0,0 +1,75 @@
+package cc.nilm.blog.service.revision;
+
+import com.github.difflib.DiffUtils;
+import com.github.difflib.patch.AbstractDelta;
+import com.github.difflib.patch.Chunk;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 以行為單位的差異編碼，描述如何由 base 組出 target。
+ * <p>
+ * 編碼為逐行的指令：{@code =起始行,行數} 表示從 base 複製一段連續的行，
+ * {@code +行數} 之後接著該數量的新行原文。行以 {@code \n} 分隔且本身不含換行，因此不需跳脫。
+ * 只改幾段的長文，差異通常只有數十個位元組。
+ */
+public final class LineDelta {
+
+    private LineDelta() {
+    }
+
+    public static String diff(String base, String target) {
+        List<String> baseLines = lines(base);
+        List<String> targetLines = lines(target);
+        StringBuilder out = new StringBuilder();
+
+        int position = 0;
+        for (AbstractDelta<String> delta : DiffUtils.diff(baseLines, targetLines).getDeltas()) {
+            Chunk<String> source = delta.getSource();
+            copy(out, position, source.getPosition() - position);
+            List<String> inserted = delta.getTarget().getLines();
+            if (!inserted.isEmpty()) {
+                out.append('+').append(inserted.size()).append('\n');
+                inserted.forEach(line -> out.append(line).append('\n'));
+            }
+            position = source.getPosition() + source.size();
+        }
+        copy(out, position, baseLines.size() - position);
+        return out.toString();
+    }
+
+    public static String apply(String base, String delta) {
+        List<String> baseLines = lines(base);
+        List<String> ops = lines(delta);
+        List<String> result = new ArrayList<>(baseLines.size());
+
+        // 結尾的換行會多出一個空字串，不是指令
+        int end = ops.size() - 1;
+        for (int i = 0; i < end; i++) {
+            String op = ops.get(i);
+            if (op.startsWith("=")) {
+                int comma = op.indexOf(',');
+                int from = Integer.parseInt(op.substring(1, comma));
+                int count = Integer.parseInt(op.substring(comma + 1));
+                result.addAll(baseLines.subList(from, from + count));
+            } else if (op.startsWith("+")) {
+                int count = Integer.parseInt(op.substring(1));
+                result.addAll(ops.subList(i + 1, i + 1 + count));
+                i += count;
+            } else {
+                throw new IllegalArgumentException("Malformed delta at line " + i);
+            }
+        }
+        return String.join("\n", result);
+    }
+
+    private static void copy(StringBuilder out, int from, int count) {
+        if (count > 0) out.append('=').append(from).append(',').append(count).append('\n');
+    }
+
+    private static List<String> lines(String text) {
+        return Arrays.asList((text == null ? "" : text).split("\n", -1));
+    }
+}
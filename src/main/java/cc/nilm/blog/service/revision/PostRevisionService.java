@@ -0,0 +1,79 @@
+package cc.nilm.blog.service.revision;
+
+import cc.nilm.blog.dto.PostRevisionContent;
+import cc.nilm.blog.dto.PostRevisionSummary;
+import cc.nilm.blog.entity.Post;
+import cc.nilm.blog.entity.PostRevision;
+import cc.nilm.blog.repository.PostRevisionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * 文章修訂紀錄，採反向差異：最新版本存完整內文，新增版本時把前一版改寫成「由新版還原」的差異。
+ * <p>
+ * 版本號為 {@link #SNAPSHOT_INTERVAL} 倍數的版本保留完整內文，
+ * 因此還原任何版本最多只需套用 {@link #SNAPSHOT_INTERVAL} 個差異，讀取的資料列數也固定有上限。
+ */
+@Service
+@RequiredArgsConstructor
+public class PostRevisionService {
+
+    static final int SNAPSHOT_INTERVAL = 10;
+
+    private final PostRevisionRepository revisionRepository;
+
+    /**
+     * 在文章儲存的交易內、渲染之後呼叫（以 contentHash 比對內文）。
+     * 標題與內文都和上一版相同（例如只改發布狀態或標籤）時不產生新版本；
+     * 因此自動儲存寫入過的內容，在正式儲存時仍會與上一個版本比較而留下紀錄。
+     */
+    public void record(Post post) {
+        Optional<PostRevision> latest = revisionRepository.findFirstByPostIdOrderByRevisionDesc(post.getId());
+        if (latest.isPresent() && Objects.equals(latest.get().getContentHash(), post.getContentHash())
+                && Objects.equals(latest.get().getTitle(), post.getTitle())) return;
+
+        String content = post.getContent() == null ? "" : post.getContent();
+        int next = 1;
+        if (latest.isPresent()) {
+            PostRevision previous = latest.get();
+            next = previous.getRevision() + 1;
+            if (previous.getRevision() % SNAPSHOT_INTERVAL != 0) {
+                previous.setData(LineDelta.diff(content, previous.getData()));
+                previous.setSnapshot(false);
+            }
+        }
+        revisionRepository.save(new PostRevision(null, post.getId(), next, post.getTitle(), true, content,
+                content.length(), post.getContentHash(), LocalDateTime.now()));
+    }
+
+    public List<PostRevisionSummary> findRevisions(Long postId) {
+        return revisionRepository.findSummariesByPostId(postId);
+    }
+
+    /**
+     * 從本版之後最近的完整版本開始，依序往回套用反向差異。
+     */
+    public Optional<PostRevisionContent> reconstruct(Long postId, int revision) {
+        List<PostRevision> rows = revisionRepository.findByPostIdAndRevisionBetweenOrderByRevisionAsc(
+                postId, revision, revision + SNAPSHOT_INTERVAL);
+        if (rows.isEmpty() || rows.get(0).getRevision() != revision) return Optional.empty();
+
+        int base = 0;
+        while (!rows.get(base).isSnapshot()) base++;
+        String content = rows.get(base).getData();
+        for (int i = base - 1; i >= 0; i--) {
+            content = LineDelta.apply(content, rows.get(i).getData());
+        }
+        PostRevision target = rows.get(0);
+        return Optional.of(new PostRevisionContent(target.getRevision(), target.getTitle(), content, target.getCreatedAt()));
+    }
+
+    public void deleteRevisions(Long postId) {
+        revisionRepository.deleteByPostId(postId);
+    }
+}
@@ -0,0 +1,314 @@
+package cc.nilm.blog.service.search;
+
+import cc.nilm.blog.dto.PostSearchHit;
+import cc.nilm.blog.dto.PostText;
+import cc.nilm.blog.entity.Post;
+import cc.nilm.blog.event.PostChangedEvent;
+import cc.nilm.blog.event.PostsImportedEvent;
+import cc.nilm.blog.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 記憶體內的 n-gram 倒排索引，適合以繁體中文為主的內容。
+ * <p>
+ * 啟動時從資料庫建立，之後依 {@link PostChangedEvent} 增量更新，查詢完全不經過資料庫：
+ * 各詞的 posting list 依文件序號遞增排列，從最短的 list 開始做交集（所有詞都要命中），
+ * 再以 BM25 計分；標題的詞頻乘上 {@link #TITLE_WEIGHT}。
+ * 更新文章時舊文件只標記刪除，累積到一定比例再整批重建，posting list 因此維持只追加；
+ * 計算 IDF 用的文件頻率只計存活的文件，不受尚未重建的刪除影響。
+ * <p>
+ * 索引存在各自的 JVM 內，多個副本之間不會同步，適合單一實例部署。
+ */
+@Component
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "ngram")
+@RequiredArgsConstructor
+@Slf4j
+public class NgramPostSearchEngine implements PostSearchEngine {
+
+    static final int TITLE_WEIGHT = 3;
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+    static final int SNIPPET_RADIUS = 60;
+    private static final int LOAD_BATCH_SIZE = 500;
+
+    private final PostRepository postRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> index = new HashMap<>();
+    private final List<Doc> docs = new ArrayList<>();
+    private final Map<Long, Integer> ordinalByPostId = new HashMap<>();
+    private long totalLength;
+    private int deletedCount;
+
+    @EventListener({ApplicationReadyEvent.class, PostsImportedEvent.class})
+    public void rebuild() {
+        List<Doc> loaded = new ArrayList<>();
+        long lastId = 0L;
+        List<PostText> batch;
+        do {
+            batch = postRepository.findByPublishedTrueAndIdGreaterThanOrderByIdAsc(lastId, Limit.of(LOAD_BATCH_SIZE));
+            for (PostText text : batch) {
+                loaded.add(new Doc(text.getId(), text.getTitle(), text.getContent(), text.getCreatedAt()));
+                lastId = text.getId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+
+        lock.writeLock().lock();
+        try {
+            reset();
+            loaded.forEach(this::append);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("N-gram search index built with {} posts and {} terms", loaded.size(), index.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        Post post = event.getPost();
+        if (event.isDeleted() || !post.isPublished()) {
+            remove(event.getPostId());
+        } else {
+            index(post.getId(), post.getTitle(), post.getContent(), post.getCreatedAt());
+        }
+    }
+
+    void index(Long postId, String title, String content, LocalDateTime createdAt) {
+        lock.writeLock().lock();
+        try {
+            markDeleted(postId);
+            append(new Doc(postId, title, content, createdAt));
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Long postId) {
+        lock.writeLock().lock();
+        try {
+            markDeleted(postId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Page<PostSearchHit> search(String query, Pageable pageable) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(NgramTokenizer.queryTokens(query)));
+        if (terms.isEmpty()) return Page.empty(pageable);
+
+        lock.readLock().lock();
+        try {
+            Postings[] lists = new Postings[terms.size()];
+            for (int t = 0; t < terms.size(); t++) {
+                lists[t] = index.get(terms.get(t));
+                if (lists[t] == null || lists[t].live == 0) return Page.empty(pageable);
+            }
+            Arrays.sort(lists, Comparator.comparingInt(p -> p.size));
+
+            List<Scored> matches = intersectAndScore(lists);
+            matches.sort(Comparator.comparingDouble(Scored::score).reversed()
+                    .thenComparing(s -> s.doc().createdAt, Comparator.nullsLast(Comparator.reverseOrder())));
+
+            int from = (int) Math.min(pageable.getOffset(), matches.size());
+            int to = Math.min(from + pageable.getPageSize(), matches.size());
+            List<PostSearchHit> hits = new ArrayList<>(to - from);
+            for (Scored match : matches.subList(from, to)) {
+                hits.add(new PostSearchHit(match.doc().postId, snippet(match.doc().content, terms), match.score()));
+            }
+            return new PageImpl<>(hits, pageable, matches.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return ordinalByPostId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 以最短的 posting list 為主，其餘 list 以遞增游標（二分搜尋跳躍）前進，所有詞都命中才計分
+    private List<Scored> intersectAndScore(Postings[] lists) {
+        int liveDocs = docs.size() - deletedCount;
+        double avgLength = liveDocs == 0 ? 1.0 : Math.max(1.0, (double) totalLength / liveDocs);
+        double[] idf = new double[lists.length];
+        for (int t = 0; t < lists.length; t++) {
+            int df = lists[t].live;
+            idf[t] = Math.log(1.0 + (Math.max(liveDocs - df, 0) + 0.5) / (df + 0.5));
+        }
+
+        int[] cursors = new int[lists.length];
+        List<Scored> matches = new ArrayList<>();
+        Postings shortest = lists[0];
+        candidates:
+        for (int i = 0; i < shortest.size; i++) {
+            int ordinal = shortest.docs[i];
+            Doc doc = docs.get(ordinal);
+            if (doc.deleted) continue;
+
+            double score = bm25(shortest.freqs[i], idf[0], doc.length, avgLength);
+            for (int t = 1; t < lists.length; t++) {
+                Postings other = lists[t];
+                int c = cursors[t];
+                if (c < other.size && other.docs[c] < ordinal) {
+                    int found = Arrays.binarySearch(other.docs, c, other.size, ordinal);
+                    c = found >= 0 ? found : -found - 1;
+                }
+                cursors[t] = c;
+                if (c == other.size) break candidates;
+                if (other.docs[c] != ordinal) continue candidates;
+                score += bm25(other.freqs[c], idf[t], doc.length, avgLength);
+            }
+            matches.add(new Scored(doc, score));
+        }
+        return matches;
+    }
+
+    private static double bm25(int tf, double idf, int length, double avgLength) {
+        return idf * (tf * (K1 + 1)) / (tf + K1 * (1 - B + B * length / avgLength));
+    }
+
+    private void append(Doc doc) {
+        int ordinal = docs.size();
+        Map<String, Integer> freqs = new HashMap<>();
+        int length = 0;
+        for (String token : NgramTokenizer.indexTokens(doc.title)) {
+            freqs.merge(token, TITLE_WEIGHT, Integer::sum);
+            length += TITLE_WEIGHT;
+        }
+        for (String token : NgramTokenizer.indexTokens(doc.content)) {
+            freqs.merge(token, 1, Integer::sum);
+            length++;
+        }
+        Postings[] postings = new Postings[freqs.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : freqs.entrySet()) {
+            postings[i] = index.computeIfAbsent(entry.getKey(), k -> new Postings());
+            postings[i++].add(ordinal, entry.getValue());
+        }
+        doc.postings = postings;
+        doc.length = length;
+        docs.add(doc);
+        ordinalByPostId.put(doc.postId, ordinal);
+        totalLength += length;
+    }
+
+    private void markDeleted(Long postId) {
+        Integer ordinal = ordinalByPostId.remove(postId);
+        if (ordinal == null) return;
+        Doc doc = docs.get(ordinal);
+        doc.deleted = true;
+        for (Postings postings : doc.postings) postings.live--;
+        doc.postings = null;
+        totalLength -= doc.length;
+        deletedCount++;
+    }
+
+    // 已刪除的文件超過四分之一時，以存活的文件重建索引
+    private void compactIfNeeded() {
+        if (deletedCount < 64 || deletedCount * 4 < docs.size()) return;
+        List<Doc> live = docs.stream().filter(doc -> !doc.deleted).toList();
+        reset();
+        live.forEach(this::append);
+    }
+
+    private void reset() {
+        index.clear();
+        docs.clear();
+        ordinalByPostId.clear();
+        totalLength = 0;
+        deletedCount = 0;
+    }
+
+    private static String snippet(String content, List<String> terms) {
+        if (content == null || content.isEmpty()) return "";
+        String lower = content.toLowerCase(Locale.ROOT);
+        // 少數字元小寫後長度會改變，此時直接以小寫文字產生片段，避免位移錯位
+        if (lower.length() != content.length()) content = lower;
+        int at = -1;
+        String term = null;
+        for (String candidate : terms) {
+            int found = lower.indexOf(candidate);
+            if (found >= 0 && (at < 0 || found < at)) {
+                at = found;
+                term = candidate;
+            }
+        }
+        if (at < 0) {
+            return SearchHighlight.toHtml(content.substring(0, Math.min(content.length(), SNIPPET_RADIUS * 2)));
+        }
+        int end = at + term.length();
+        int from = Math.max(0, at - SNIPPET_RADIUS);
+        int to = Math.min(content.length(), end + SNIPPET_RADIUS);
+        return SearchHighlight.toHtml(content.substring(from, at) + SearchHighlight.START + content.substring(at, end)
+                + SearchHighlight.STOP + content.substring(end, to));
+    }
+
+    private static final class Doc {
+        final Long postId;
+        final String title;
+        final String content;
+        final LocalDateTime createdAt;
+        int length;
+        boolean deleted;
+        // 此文件出現在哪些 posting list，刪除時據以扣掉各詞的存活文件數
+        Postings[] postings;
+
+        Doc(Long postId, String title, String content, LocalDateTime createdAt) {
+            this.postId = postId;
+            this.title = title != null ? title : "";
+            this.content = content != null ? content : "";
+            this.createdAt = createdAt;
+        }
+    }
+
+    // 依文件序號遞增的 posting list，只會在尾端追加；size 含已刪除的文件，live 只計存活的文件
+    private static final class Postings {
+        int[] docs = new int[4];
+        int[] freqs = new int[4];
+        int size;
+        int live;
+
+        void add(int ordinal, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = ordinal;
+            freqs[size] = freq;
+            size++;
+            live++;
+        }
+    }
+
+    private record Scored(Doc doc, double score) {
+    }
+}
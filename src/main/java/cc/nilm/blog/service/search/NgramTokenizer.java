@@ -0,0 +1,74 @@
+package cc.nilm.blog.service.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 中日韓文字以字元 bigram 切詞，拉丁字母與數字則以整個單字為詞。
+ * 先做 NFKC 正規化與小寫化，全形英數字與半形視為相同。
+ */
+final class NgramTokenizer {
+
+    private NgramTokenizer() {
+    }
+
+    /**
+     * 索引用：CJK 片段同時輸出單字與 bigram，讓單一字的查詢也能命中。
+     */
+    static List<String> indexTokens(String text) {
+        return tokenize(text, true);
+    }
+
+    /**
+     * 查詢用：CJK 片段只輸出 bigram；長度為 1 的片段才使用單字。
+     */
+    static List<String> queryTokens(String text) {
+        return tokenize(text, false);
+    }
+
+    private static List<String> tokenize(String text, boolean withUnigrams) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) return tokens;
+
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        int[] codePoints = normalized.codePoints().toArray();
+
+        int i = 0;
+        while (i < codePoints.length) {
+            int cp = codePoints[i];
+            if (isCjk(cp)) {
+                int start = i;
+                while (i < codePoints.length && isCjk(codePoints[i])) i++;
+                emitCjkRun(codePoints, start, i, withUnigrams, tokens);
+            } else if (Character.isLetterOrDigit(cp)) {
+                int start = i;
+                while (i < codePoints.length && !isCjk(codePoints[i]) && Character.isLetterOrDigit(codePoints[i])) i++;
+                tokens.add(new String(codePoints, start, i - start));
+            } else {
+                i++;
+            }
+        }
+        return tokens;
+    }
+
+    private static void emitCjkRun(int[] codePoints, int start, int end, boolean withUnigrams, List<String> tokens) {
+        if (end - start == 1 || withUnigrams) {
+            for (int i = start; i < end; i++) {
+                tokens.add(new String(codePoints, i, 1));
+            }
+        }
+        for (int i = start; i + 1 < end; i++) {
+            tokens.add(new String(codePoints, i, 2));
+        }
+    }
+
+    static boolean isCjk(int cp) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(cp);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+}
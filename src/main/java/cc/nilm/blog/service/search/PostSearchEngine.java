@@ -0,0 +1,15 @@
+package cc.nilm.blog.service.search;
+
+import cc.nilm.blog.dto.PostSearchHit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * 文章全文搜尋後端，由 app.search.engine 決定實作：
+ * postgres（預設，tsvector + GIN）或 ngram（記憶體內 CJK bigram 倒排索引）。
+ * 只搜尋已發布的文章，結果依相關度排序，忽略 pageable 的排序設定。
+ */
+public interface PostSearchEngine {
+
+    Page<PostSearchHit> search(String query, Pageable pageable);
+}
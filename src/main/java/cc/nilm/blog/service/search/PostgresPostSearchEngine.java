@@ -0,0 +1,87 @@
+package cc.nilm.blog.service.search;
+
+import cc.nilm.blog.dto.PostSearchHit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * PostgreSQL 全文搜尋：posts.search_vector 為 STORED generated column（標題權重 A、內文權重 B），
+ * 由資料庫在寫入時自動維護，並以 GIN 索引查詢；排序用 ts_rank_cd，摘錄用 ts_headline。
+ */
+@Component
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "postgres", matchIfMissing = true)
+@Slf4j
+public class PostgresPostSearchEngine implements PostSearchEngine {
+
+    private static final String HEADLINE_OPTIONS =
+            "StartSel=" + SearchHighlight.START + ", StopSel=" + SearchHighlight.STOP + ", MaxWords=35, MinWords=15, MaxFragments=2, FragmentDelimiter=\" … \"";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final String textSearchConfig;
+
+    public PostgresPostSearchEngine(JdbcTemplate jdbcTemplate,
+                                    @Value("${app.search.text-search-config:simple}") String textSearchConfig) {
+        if (!textSearchConfig.matches("[a-z_]+")) {
+            throw new IllegalArgumentException("Invalid text search config: " + textSearchConfig);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.textSearchConfig = textSearchConfig;
+    }
+
+    // Hibernate ddl-auto 建好資料表後才補上搜尋欄位與索引，兩者皆為冪等操作
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureSearchIndex() {
+        try {
+            jdbcTemplate.execute("ALTER TABLE posts ADD COLUMN IF NOT EXISTS search_vector tsvector " +
+                    "GENERATED ALWAYS AS (" +
+                    "setweight(to_tsvector('" + textSearchConfig + "', coalesce(title, '')), 'A') || " +
+                    "setweight(to_tsvector('" + textSearchConfig + "', coalesce(content, '')), 'B')) STORED");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_posts_search_vector ON posts USING GIN (search_vector)");
+            log.info("Full-text search index ready (config: {})", textSearchConfig);
+        } catch (Exception ex) {
+            log.error("Could not create full-text search column/index", ex);
+        }
+    }
+
+    @Override
+    public Page<PostSearchHit> search(String query, Pageable pageable) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("config", textSearchConfig)
+                .addValue("query", query)
+                .addValue("limit", pageable.getPageSize())
+                .addValue("offset", pageable.getOffset());
+
+        // 先在內層排序與分頁，ts_headline 只對本頁的文章計算
+        List<PostSearchHit> hits = namedJdbcTemplate.query(
+                "SELECT ranked.id, ranked.score, " +
+                "       ts_headline(CAST(:config AS regconfig), p.content, ranked.q, '" + HEADLINE_OPTIONS + "') AS snippet " +
+                "FROM (SELECT p.id, q, ts_rank_cd(p.search_vector, q) AS score, p.created_at " +
+                "      FROM posts p, websearch_to_tsquery(CAST(:config AS regconfig), :query) q " +
+                "      WHERE p.published = true AND p.search_vector @@ q " +
+                "      ORDER BY score DESC, p.created_at DESC, p.id DESC " +
+                "      LIMIT :limit OFFSET :offset) ranked " +
+                "JOIN posts p ON p.id = ranked.id " +
+                "ORDER BY ranked.score DESC, ranked.created_at DESC, ranked.id DESC",
+                params,
+                (rs, rowNum) -> new PostSearchHit(rs.getLong("id"), SearchHighlight.toHtml(rs.getString("snippet")), rs.getDouble("score")));
+
+        return PageableExecutionUtils.getPage(hits, pageable, () -> namedJdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM posts p, websearch_to_tsquery(CAST(:config AS regconfig), :query) q " +
+                "WHERE p.published = true AND p.search_vector @@ q",
+                params, Long.class));
+    }
+}
@@ -0,0 +1,23 @@
+package cc.nilm.blog.service.search;
+
+import org.springframework.web.util.HtmlUtils;
+
+/**
+ * 命中片段的 HTML 格式：原文全部跳脫，只有命中處以 {@code <mark>} 標示，前端可直接以 v-html 呈現。
+ * <p>
+ * 搜尋引擎先以 {@link #START}、{@link #STOP} 這兩個私用區字元標出命中處，跳脫整段文字後再換成標籤，
+ * 文章內文裡的 HTML 或 Markdown 角括號不會被當成標籤。
+ */
+final class SearchHighlight {
+
+    static final String START = "\uE000";
+    static final String STOP = "\uE001";
+
+    private SearchHighlight() {
+    }
+
+    static String toHtml(String marked) {
+        if (marked == null) return null;
+        return HtmlUtils.htmlEscape(marked).replace(START, "<mark>").replace(STOP, "</mark>");
+    }
+}
@@ -0,0 +1,25 @@
+package cc.nilm.blog.service.sitemap;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@ConditionalOnProperty(name = "app.sitemap.storage", havingValue = "memory", matchIfMissing = true)
+public class InMemorySitemapStore implements SitemapStore {
+
+    private final Map<String, StoredSitemap> sitemaps = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<StoredSitemap> get(String name) {
+        return Optional.ofNullable(sitemaps.get(name));
+    }
+
+    @Override
+    public void put(String name, StoredSitemap sitemap) {
+        sitemaps.put(name, sitemap);
+    }
+}
@@ -0,0 +1,73 @@
+package cc.nilm.blog.service.sitemap;
+
+import cc.nilm.blog.config.MinioConfig;
+import io.minio.GetObjectArgs;
+import io.minio.GetObjectResponse;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import io.minio.errors.ErrorResponseException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 把 sitemap 存在 MinIO 的 {@code sitemaps/} 之下，兩個時間記在物件的 metadata。
+ * 讀寫失敗時只記錄警告，由呼叫端重新產生。
+ */
+@Component
+@ConditionalOnProperty(name = "app.sitemap.storage", havingValue = "minio")
+@RequiredArgsConstructor
+@Slf4j
+public class MinioSitemapStore implements SitemapStore {
+
+    private static final String LAST_MODIFIED = "last-modified";
+    private static final String GENERATED_AT = "generated-at";
+
+    private final MinioClient minioClient;
+    private final MinioConfig minioConfig;
+
+    @Override
+    public Optional<StoredSitemap> get(String name) {
+        try (GetObjectResponse response = minioClient.getObject(GetObjectArgs.builder()
+                .bucket(minioConfig.getBucketName())
+                .object(objectName(name))
+                .build())) {
+            String lastModified = response.headers().get("x-amz-meta-" + LAST_MODIFIED);
+            String generatedAt = response.headers().get("x-amz-meta-" + GENERATED_AT);
+            if (lastModified == null || generatedAt == null) return Optional.empty();
+            return Optional.of(new StoredSitemap(response.readAllBytes(), Instant.parse(lastModified), Instant.parse(generatedAt)));
+        } catch (ErrorResponseException ex) {
+            if (!"NoSuchKey".equals(ex.errorResponse().code())) log.warn("Could not read sitemap {} from MinIO", name, ex);
+            return Optional.empty();
+        } catch (Exception ex) {
+            log.warn("Could not read sitemap {} from MinIO", name, ex);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void put(String name, StoredSitemap sitemap) {
+        try {
+            minioClient.putObject(PutObjectArgs.builder()
+                    .bucket(minioConfig.getBucketName())
+                    .object(objectName(name))
+                    .stream(new ByteArrayInputStream(sitemap.xml()), sitemap.xml().length, -1)
+                    .contentType("application/xml")
+                    .userMetadata(Map.of(LAST_MODIFIED, sitemap.lastModified().toString(),
+                            GENERATED_AT, sitemap.generatedAt().toString()))
+                    .build());
+        } catch (Exception ex) {
+            log.warn("Could not store sitemap {} in MinIO", name, ex);
+        }
+    }
+
+    private static String objectName(String name) {
+        return "sitemaps/" + name + ".xml";
+    }
+}
@@ -0,0 +1,169 @@
+package cc.nilm.blog.service.sitemap;
+
+import cc.nilm.blog.event.PostChangedEvent;
+import cc.nilm.blog.event.PostsImportedEvent;
+import cc.nilm.blog.repository.PostRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 產生 sitemap 索引與分片。
+ * <p>
+ * 已發布文章依 ID 區間分片，第 n 片涵蓋 [n × {@value #SHARD_SIZE}, (n + 1) × {@value #SHARD_SIZE})，
+ * 每片最多 {@value #SHARD_SIZE} 個網址（協定上限），只需一次主鍵範圍查詢。文章異動只標記所在的分片，
+ * 由排程或下一次請求重新產生；內容沒變時保留原本的 Last-Modified。
+ * 其他副本的異動本機收不到事件，靠 {@code app.sitemap.max-age} 到期重新產生。
+ */
+@Service
+@Slf4j
+public class SitemapService {
+
+    static final int SHARD_SIZE = 50_000;
+    static final String INDEX = "index";
+
+    private final PostRepository postRepository;
+    private final SitemapStore store;
+    private final String siteUrl;
+    private final Duration maxAge;
+    private final Clock clock;
+
+    private final Set<Integer> dirtyShards = ConcurrentHashMap.newKeySet();
+    private volatile boolean allDirty;
+
+    @Autowired
+    public SitemapService(PostRepository postRepository,
+                          SitemapStore store,
+                          @Value("${app.frontend.url}") String siteUrl,
+                          @Value("${app.sitemap.max-age:PT1H}") Duration maxAge) {
+        this(postRepository, store, siteUrl, maxAge, Clock.systemUTC());
+    }
+
+    SitemapService(PostRepository postRepository, SitemapStore store, String siteUrl, Duration maxAge, Clock clock) {
+        this.postRepository = postRepository;
+        this.store = store;
+        this.siteUrl = siteUrl.endsWith("/") ? siteUrl.substring(0, siteUrl.length() - 1) : siteUrl;
+        this.maxAge = maxAge;
+        this.clock = clock;
+    }
+
+    public StoredSitemap index() {
+        if (allDirty || !dirtyShards.isEmpty()) return regenerateIndex();
+        return current(INDEX).orElseGet(this::regenerateIndex);
+    }
+
+    /**
+     * 回傳第 shard 片；超出目前已發布文章的 ID 範圍時為 empty。
+     */
+    public Optional<StoredSitemap> shard(int shard) {
+        if (shard < 0 || shard > lastShard()) return Optional.empty();
+        return Optional.of(currentShard(shard));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        dirtyShards.add(shardOf(event.getPostId()));
+    }
+
+    @EventListener
+    public void onPostsImported(PostsImportedEvent event) {
+        allDirty = true;
+    }
+
+    // 主動寫回標記過的分片，使用共用儲存時其他副本不必等到有請求打到本機
+    @Scheduled(fixedDelayString = "${app.sitemap.refresh-interval:PT1M}")
+    public void refresh() {
+        if (allDirty || !dirtyShards.isEmpty()) regenerateIndex();
+    }
+
+    private StoredSitemap currentShard(int shard) {
+        if (allDirty || dirtyShards.contains(shard)) return regenerateShard(shard);
+        return current(Integer.toString(shard)).orElseGet(() -> regenerateShard(shard));
+    }
+
+    private Optional<StoredSitemap> current(String name) {
+        Instant staleBefore = clock.instant().minus(maxAge);
+        return store.get(name).filter(sitemap -> sitemap.generatedAt().isAfter(staleBefore));
+    }
+
+    private synchronized StoredSitemap regenerateIndex() {
+        if (allDirty) {
+            allDirty = false;
+            dirtyShards.clear();
+            for (int shard = 0; shard <= lastShard(); shard++) regenerateShard(shard);
+        }
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<sitemapindex xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">\n");
+        int lastShard = lastShard();
+        for (int shard = 0; shard <= lastShard; shard++) {
+            StoredSitemap stored = currentShard(shard);
+            xml.append("  <sitemap><loc>").append(siteUrl).append("/sitemaps/").append(shard).append(".xml</loc>")
+                    .append("<lastmod>").append(w3c(stored.lastModified())).append("</lastmod></sitemap>\n");
+        }
+        xml.append("</sitemapindex>\n");
+        return save(INDEX, xml);
+    }
+
+    private synchronized StoredSitemap regenerateShard(int shard) {
+        // 先清除標記再查詢，查詢期間的異動會重新標記
+        dirtyShards.remove(shard);
+        long fromId = (long) shard * SHARD_SIZE;
+        List<Object[]> entries = postRepository.findSitemapEntries(fromId, fromId + SHARD_SIZE);
+
+        StringBuilder xml = new StringBuilder(128 + entries.size() * 96)
+                .append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">\n");
+        for (Object[] entry : entries) {
+            LocalDateTime modifiedAt = entry[2] != null ? (LocalDateTime) entry[2] : (LocalDateTime) entry[1];
+            xml.append("  <url><loc>").append(siteUrl).append("/post/").append(entry[0]).append("</loc>");
+            if (modifiedAt != null) xml.append("<lastmod>").append(DateTimeFormatter.ISO_LOCAL_DATE.format(modifiedAt)).append("</lastmod>");
+            xml.append("</url>\n");
+        }
+        xml.append("</urlset>\n");
+        log.debug("Regenerated sitemap shard {} with {} posts", shard, entries.size());
+        return save(Integer.toString(shard), xml);
+    }
+
+    private StoredSitemap save(String name, StringBuilder xml) {
+        byte[] bytes = xml.toString().getBytes(StandardCharsets.UTF_8);
+        Instant now = clock.instant();
+        Instant lastModified = store.get(name)
+                .filter(previous -> Arrays.equals(previous.xml(), bytes))
+                .map(StoredSitemap::lastModified)
+                .orElse(now);
+        StoredSitemap sitemap = new StoredSitemap(bytes, lastModified, now);
+        store.put(name, sitemap);
+        return sitemap;
+    }
+
+    private int lastShard() {
+        Long maxId = postRepository.findMaxPublishedId();
+        return maxId == null ? 0 : shardOf(maxId);
+    }
+
+    static int shardOf(long postId) {
+        return (int) (postId / SHARD_SIZE);
+    }
+
+    private static String w3c(Instant instant) {
+        return instant.truncatedTo(ChronoUnit.SECONDS).atOffset(ZoneOffset.UTC).toString();
+    }
+}
@@ -0,0 +1,14 @@
+package cc.nilm.blog.service.sitemap;
+
+import java.util.Optional;
+
+/**
+ * 存放產生好的 sitemap 索引與分片，名稱為 {@code index} 或分片編號。
+ * 預設存在本機記憶體；設定 {@code app.sitemap.storage=minio} 時存到 MinIO，由各副本共用。
+ */
+public interface SitemapStore {
+
+    Optional<StoredSitemap> get(String name);
+
+    void put(String name, StoredSitemap sitemap);
+}
@@ -0,0 +1,10 @@
+package cc.nilm.blog.service.sitemap;
+
+import java.time.Instant;
+
+/**
+ * 產生好的 sitemap 檔案。lastModified 是內容最後一次改變的時間（作為 Last-Modified 與索引中的 lastmod），
+ * generatedAt 是最後一次重新產生的時間（用來判斷是否過期）。
+ */
+public record StoredSitemap(byte[] xml, Instant lastModified, Instant generatedAt) {
+}
@@ -0,0 +1,54 @@
+package cc.nilm.blog.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PostStorageCompressionTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private PostStorageCompression postStorageCompression;
+
+    @BeforeEach
+    void setup() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+    }
+
+    @Test
+    void useLz4ForContent_AlreadyLz4_ShouldSkipAlterTable() {
+        // given
+        when(jdbcTemplate.queryForObject(anyString(), eq(String.class))).thenReturn(PostStorageCompression.LZ4);
+
+        // when
+        postStorageCompression.useLz4ForContent();
+
+        // then
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void useLz4ForContent_DefaultCompression_ShouldAlterOnce() {
+        // given
+        when(jdbcTemplate.queryForObject(anyString(), eq(String.class))).thenReturn("");
+
+        // when
+        postStorageCompression.useLz4ForContent();
+
+        // then
+        verify(jdbcTemplate).execute("ALTER TABLE posts ALTER COLUMN content SET COMPRESSION lz4");
+    }
+}
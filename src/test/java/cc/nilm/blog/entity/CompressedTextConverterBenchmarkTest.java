@@ -0,0 +1,58 @@
+package cc.nilm.blog.entity;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 壓縮儲存的大小與讀取延遲量測，預設不執行（{@code mvn test -Pbenchmark}），結果輸出到日誌。
+ * <p>
+ * 比較同一批渲染後 HTML 以原文與壓縮格式儲存時的大小，以及讀取時的轉換耗時；原文讀取不經轉換，
+ * 解壓縮耗時即為開啟壓縮後每篇多出的成本。
+ */
+@Tag("benchmark")
+@Slf4j
+class CompressedTextConverterBenchmarkTest {
+
+    private static final int WARMUP_ROUNDS = 50;
+    private static final int MEASURED_ROUNDS = 200;
+
+    private final CompressedTextConverter converter = new CompressedTextConverter(true, DataSize.ofKilobytes(8));
+
+    @Test
+    void renderedPosts_SizeAndDecodeLatency() {
+        // given
+        List<String> corpus = CompressedTextConverterTest.renderedPosts();
+        List<String> stored = corpus.stream().map(converter::convertToDatabaseColumn).toList();
+        long originalBytes = corpus.stream().mapToLong(html -> html.getBytes(StandardCharsets.UTF_8).length).sum();
+        long storedBytes = stored.stream().mapToLong(value -> value.getBytes(StandardCharsets.UTF_8).length).sum();
+
+        // when：每輪解壓縮全部文章，取每篇的耗時
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            stored.forEach(converter::convertToEntityAttribute);
+        }
+        long[] nanos = new long[MEASURED_ROUNDS * stored.size()];
+        int n = 0;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            for (String value : stored) {
+                long start = System.nanoTime();
+                String decoded = converter.convertToEntityAttribute(value);
+                nanos[n++] = System.nanoTime() - start;
+                assertThat(decoded).isNotEmpty();
+            }
+        }
+        Arrays.sort(nanos);
+
+        // then
+        log.info("Compressed storage: {} posts, {} -> {} bytes ({}%), decode per post p50 {} us, p99 {} us",
+                corpus.size(), originalBytes, storedBytes, 100 * storedBytes / originalBytes,
+                nanos[nanos.length / 2] / 1_000, nanos[nanos.length * 99 / 100] / 1_000);
+    }
+}
@@ -0,0 +1,107 @@
+package cc.nilm.blog.entity;
+
+import cc.nilm.blog.service.markdown.MarkdownRenderer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class CompressedTextConverterTest {
+
+    private final CompressedTextConverter converter = new CompressedTextConverter(true, DataSize.ofKilobytes(8));
+
+    @Test
+    void shouldCompressOnlyValuesAboveThreshold() {
+        // given
+        String small = "<p>短文</p>";
+        String large = "<pre><code>System.out.println(\"hello\");</code></pre>\n".repeat(500);
+
+        // when
+        String storedSmall = converter.convertToDatabaseColumn(small);
+        String storedLarge = converter.convertToDatabaseColumn(large);
+
+        // then
+        assertThat(storedSmall).isEqualTo(small);
+        assertThat(storedLarge).startsWith(CompressedTextConverter.PREFIX).hasSizeLessThan(large.length() / 10);
+        assertThat(converter.convertToEntityAttribute(storedLarge)).isEqualTo(large);
+    }
+
+    @Test
+    void threshold_ShouldCountUtf8BytesNotChars() {
+        // given：3,000 個中文字不到 8K 字元，但 UTF-8 編碼約 9KB
+        String cjk = "<p>" + "重複的中文段落".repeat(430) + "</p>";
+
+        // then
+        assertThat(cjk.length()).isLessThan(8 * 1024);
+        assertThat(converter.convertToDatabaseColumn(cjk)).startsWith(CompressedTextConverter.PREFIX);
+        assertThat(converter.convertToEntityAttribute(converter.convertToDatabaseColumn(cjk))).isEqualTo(cjk);
+    }
+
+    @Test
+    void disabled_ShouldStoreAsIsButStillReadCompressedValues() {
+        // given
+        CompressedTextConverter disabled = new CompressedTextConverter();
+        String large = "重複的內容".repeat(5_000);
+        String compressed = converter.convertToDatabaseColumn(large);
+
+        // then
+        assertThat(disabled.convertToDatabaseColumn(large)).isEqualTo(large);
+        assertThat(disabled.convertToEntityAttribute(compressed)).isEqualTo(large);
+        assertThat(disabled.convertToEntityAttribute(null)).isNull();
+    }
+
+    @Test
+    void valueStartingWithPrefix_ShouldRoundTrip() {
+        String tricky = CompressedTextConverter.PREFIX + "not base64";
+
+        assertThat(converter.convertToEntityAttribute(converter.convertToDatabaseColumn(tricky))).isEqualTo(tricky);
+        assertThat(new CompressedTextConverter().convertToDatabaseColumn(tricky))
+                .startsWith(CompressedTextConverter.PREFIX).isNotEqualTo(tricky);
+    }
+
+    @Test
+    void renderedPosts_ShouldShrinkToQuarterOfOriginalSize() {
+        // given
+        List<String> corpus = renderedPosts();
+
+        // when
+        long originalBytes = 0;
+        long storedBytes = 0;
+        for (String html : corpus) {
+            String stored = converter.convertToDatabaseColumn(html);
+            originalBytes += html.getBytes(StandardCharsets.UTF_8).length;
+            storedBytes += stored.getBytes(StandardCharsets.UTF_8).length;
+            assertThat(converter.convertToEntityAttribute(stored)).isEqualTo(html);
+        }
+
+        // then
+        log.debug("Compressed {} -> {} bytes", originalBytes, storedBytes);
+        assertThat(storedBytes).isLessThan(originalBytes / 4);
+    }
+
+    /**
+     * 以含大量程式碼區塊的 Markdown 渲染出 20 篇各約 11 萬字元（UTF-8 約 146KB）的 HTML，模擬長篇技術文章。
+     */
+    static List<String> renderedPosts() {
+        MarkdownRenderer renderer = new MarkdownRenderer();
+        List<String> corpus = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            StringBuilder markdown = new StringBuilder("# 第 " + i + " 篇\n\n");
+            for (int section = 0; section < 600; section++) {
+                markdown.append("## 步驟 ").append(section).append("\n\n")
+                        .append("這一段說明第 ").append(section).append(" 個設定值的用途，以及調整時要注意的地方。\n\n")
+                        .append("```java\n")
+                        .append("public int compute").append(section).append("(int value) {\n")
+                        .append("    return value * ").append(section + i).append(" + offset;\n}\n```\n\n");
+            }
+            corpus.add(renderer.render(markdown.toString()).html());
+        }
+        return corpus;
+    }
+}
@@ -1,6 +1,9 @@
 package cc.nilm.blog.repository;
 
+import cc.nilm.blog.dto.CategorySummary;
 import cc.nilm.blog.entity.Category;
+import cc.nilm.blog.entity.Post;
+import cc.nilm.blog.entity.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,10 +11,12 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @DataJpaTest
 @ActiveProfiles("test")
@@ -59,6 +64,39 @@ class CategoryRepositoryTest {
         assertThat(categories).extracting(Category::getName).containsExactlyInAnyOrder("Technology", "Lifestyle");
     }
 
+    @Test
+    void findSummaries_ShouldCountOnlyPublishedPosts() {
+        // given
+        User author = new User();
+        author.setUsername("writer");
+        author.setEmail("writer@example.com");
+        author.setPassword("secret");
+        author.setFullName("Writer");
+        entityManager.persist(author);
+
+        for (boolean published : new boolean[]{true, true, false}) {
+            Post post = new Post();
+            post.setTitle("Post");
+            post.setContent("content");
+            post.setPublished(published);
+            post.setAuthor(author);
+            post.setCategory(category1);
+            post.setCreatedAt(LocalDateTime.now());
+            entityManager.persist(post);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        List<CategorySummary> summaries = categoryRepository.findSummaries();
+
+        // then
+        assertThat(summaries).extracting(CategorySummary::getName, CategorySummary::getPostCount)
+                .containsExactly(
+                        tuple("Technology", 2L),
+                        tuple("Lifestyle", 0L));
+    }
+
     @Test
     void save_ShouldPersistCategory() {
         // given
@@ -0,0 +1,131 @@
+package cc.nilm.blog.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 評論寫入吞吐量量測，預設不執行（{@code mvn test -Pbenchmark}），結果輸出到日誌。
+ * <p>
+ * 同一個 JPA context 無法讓 Comment 同時對應兩種主鍵策略，因此直接以 JDBC 重現 Hibernate 對兩種對應送出的語句：
+ * IDENTITY 每筆各自 INSERT 並取回產生的主鍵，無法批次；pooled 序列每 50 個 ID 取一次 nextval，
+ * INSERT 以 50 筆為一批送出。H2 在同一行程內沒有網路往返，實際資料庫上的差距只會更大。
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Tag("benchmark")
+@Slf4j
+class CommentInsertBenchmarkTest {
+
+    private static final int ROWS = 20_000;
+    private static final int WARMUP_ROWS = 2_000;
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        jdbcTemplate.execute("CREATE TABLE bench_identity_comments (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                "content TEXT NOT NULL, created_at TIMESTAMP NOT NULL, post_id BIGINT NOT NULL, user_id BIGINT NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE bench_sequence_comments (id BIGINT PRIMARY KEY, " +
+                "content TEXT NOT NULL, created_at TIMESTAMP NOT NULL, post_id BIGINT NOT NULL, user_id BIGINT NOT NULL)");
+        jdbcTemplate.execute("CREATE SEQUENCE bench_comments_seq START WITH 1 INCREMENT BY " + BATCH_SIZE);
+    }
+
+    @Test
+    void insertThroughput_IdentityVersusPooledSequence() {
+        // given
+        insertWithIdentity(WARMUP_ROWS);
+        insertWithPooledSequence(WARMUP_ROWS);
+
+        // when
+        long identityNanos = insertWithIdentity(ROWS);
+        long sequenceNanos = insertWithPooledSequence(ROWS);
+
+        // then
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bench_identity_comments", Long.class))
+                .isEqualTo(WARMUP_ROWS + ROWS);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bench_sequence_comments", Long.class))
+                .isEqualTo(WARMUP_ROWS + ROWS);
+        log.info("Comment inserts ({} rows): IDENTITY without batching {} rows/s, pooled sequence with batch {} {} rows/s",
+                ROWS, rowsPerSecond(identityNanos), BATCH_SIZE, rowsPerSecond(sequenceNanos));
+    }
+
+    private long insertWithIdentity(int rows) {
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            long start = System.nanoTime();
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO bench_identity_comments (content, created_at, post_id, user_id) VALUES (?, ?, ?, ?)",
+                    Statement.RETURN_GENERATED_KEYS)) {
+                for (int i = 0; i < rows; i++) {
+                    bind(insert, 1, i);
+                    insert.executeUpdate();
+                    try (ResultSet keys = insert.getGeneratedKeys()) {
+                        keys.next();
+                    }
+                }
+            }
+            return System.nanoTime() - start;
+        });
+    }
+
+    private long insertWithPooledSequence(int rows) {
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            long start = System.nanoTime();
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO bench_sequence_comments (id, content, created_at, post_id, user_id) VALUES (?, ?, ?, ?, ?)")) {
+                long nextId = 0;
+                long maxId = -1;
+                for (int i = 0; i < rows; i++) {
+                    if (nextId > maxId) {
+                        long hi = nextSequenceValue(connection);
+                        nextId = hi;
+                        maxId = hi + BATCH_SIZE - 1;
+                    }
+                    insert.setLong(1, nextId++);
+                    bind(insert, 2, i);
+                    insert.addBatch();
+                    if ((i + 1) % BATCH_SIZE == 0) insert.executeBatch();
+                }
+                insert.executeBatch();
+            }
+            return System.nanoTime() - start;
+        });
+    }
+
+    private static long nextSequenceValue(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT NEXT VALUE FOR bench_comments_seq")) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+    private static void bind(PreparedStatement insert, int from, int i) throws SQLException {
+        insert.setString(from, "comment " + i);
+        insert.setTimestamp(from + 1, Timestamp.valueOf(LocalDateTime.now()));
+        insert.setLong(from + 2, 1L);
+        insert.setLong(from + 3, 1L);
+    }
+
+    private static long rowsPerSecond(long nanos) {
+        return ROWS * 1_000_000_000L / Math.max(nanos, 1);
+    }
+}
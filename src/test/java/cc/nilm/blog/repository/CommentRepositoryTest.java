@@ -0,0 +1,117 @@
+package cc.nilm.blog.repository;
+
+import cc.nilm.blog.entity.Comment;
+import cc.nilm.blog.entity.Post;
+import cc.nilm.blog.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class CommentRepositoryTest {
+
+    private static final int COMMENTS = 2000;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User author;
+    private Post post;
+
+    @BeforeEach
+    void setup() {
+        author = new User();
+        author.setUsername("reader");
+        author.setEmail("reader@example.com");
+        author.setPassword("secret");
+        author.setFullName("Reader");
+        entityManager.persist(author);
+
+        post = new Post();
+        post.setTitle("Post");
+        post.setContent("content");
+        post.setPublished(true);
+        post.setAuthor(author);
+        post.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(post);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void saveAll_ShouldAssignPooledIdsWithoutInserting() {
+        // given
+        List<Comment> comments = comments(3);
+        Statistics statistics = statistics();
+
+        // when：序列主鍵在 persist 時就配好 ID，INSERT 延到 flush 才整批送出
+        commentRepository.saveAll(comments);
+
+        // then
+        assertThat(comments).allSatisfy(comment -> assertThat(comment.getId()).isNotNull());
+        assertThat(statistics.getEntityInsertCount()).isZero();
+    }
+
+    @Test
+    void saveAll_ShouldBatchCommentInserts() {
+        // given：JDBC 批次大小 1 相當於改用序列之前逐筆 INSERT 的情況
+        long unbatchedStatements = insertComments(1);
+        long batchedStatements = insertComments(50);
+
+        // then
+        assertThat(commentRepository.count()).isEqualTo(2L * COMMENTS);
+        assertThat(batchedStatements).isLessThan(unbatchedStatements / 10);
+    }
+
+    private long insertComments(int batchSize) {
+        entityManager.getEntityManager().unwrap(Session.class).setJdbcBatchSize(batchSize);
+        List<Comment> comments = comments(COMMENTS);
+        Statistics statistics = statistics();
+
+        commentRepository.saveAll(comments);
+        entityManager.flush();
+        entityManager.clear();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private List<Comment> comments(int count) {
+        Post postRef = entityManager.getEntityManager().getReference(Post.class, post.getId());
+        User authorRef = entityManager.getEntityManager().getReference(User.class, author.getId());
+        List<Comment> comments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Comment comment = new Comment();
+            comment.setContent("comment " + i);
+            comment.setPost(postRef);
+            comment.setAuthor(authorRef);
+            comments.add(comment);
+        }
+        return comments;
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
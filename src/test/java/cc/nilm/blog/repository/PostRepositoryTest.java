@@ -0,0 +1,397 @@
+package cc.nilm.blog.repository;
+
+import cc.nilm.blog.config.JacksonConfig;
+import cc.nilm.blog.dto.PostSummary;
+import cc.nilm.blog.entity.Category;
+import cc.nilm.blog.entity.Comment;
+import cc.nilm.blog.entity.Post;
+import cc.nilm.blog.entity.Tag;
+import cc.nilm.blog.entity.User;
+import cc.nilm.blog.service.PostViewCounter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectRetrievalFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class PostRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User author;
+    private Category category;
+    private Tag java;
+    private Post published;
+    private Post draft;
+
+    private final Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt"));
+
+    @BeforeEach
+    void setup() {
+        author = new User();
+        author.setUsername("writer");
+        author.setEmail("writer@example.com");
+        author.setPassword("secret");
+        author.setFullName("Writer");
+        entityManager.persist(author);
+
+        category = new Category();
+        category.setName("Technology");
+        entityManager.persist(category);
+
+        java = new Tag();
+        java.setName("Java");
+        entityManager.persist(java);
+
+        Tag spring = new Tag();
+        spring.setName("Spring");
+        entityManager.persist(spring);
+
+        published = new Post();
+        published.setTitle("Published Post");
+        published.setContent("x".repeat(PostSummary.EXCERPT_LENGTH * 3));
+        published.setPublished(true);
+        published.setAuthor(author);
+        published.setCategory(category);
+        published.setTags(Set.of(java, spring));
+        published.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(published);
+
+        draft = new Post();
+        draft.setTitle("Draft Post");
+        draft.setContent("draft");
+        draft.setPublished(false);
+        draft.setAuthor(author);
+        draft.setTags(Set.of(java));
+        draft.setCreatedAt(LocalDateTime.now().minusDays(1));
+        entityManager.persist(draft);
+
+        for (int i = 0; i < 2; i++) {
+            Comment comment = new Comment();
+            comment.setContent("comment " + i);
+            comment.setAuthor(author);
+            comment.setPost(published);
+            entityManager.persist(comment);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findPublishedSummaries_ShouldProjectListingFields() {
+        // when
+        Page<PostSummary> page = postRepository.findPublishedSummaries(pageable);
+
+        // then
+        assertThat(page.getTotalElements()).isEqualTo(1);
+        PostSummary summary = page.getContent().get(0);
+        assertThat(summary.getId()).isEqualTo(published.getId());
+        assertThat(summary.getTitle()).isEqualTo("Published Post");
+        assertThat(summary.getExcerpt()).hasSize(PostSummary.EXCERPT_LENGTH);
+        assertThat(summary.getAuthorName()).isEqualTo("Writer");
+        assertThat(summary.getCategory().getName()).isEqualTo("Technology");
+        assertThat(summary.getCommentCount()).isEqualTo(2);
+    }
+
+    @Test
+    void viewCount_ShouldDefaultToZeroAndAccumulateFlushedViews() {
+        // given：新文章的 view_count 由資料庫預設值填入
+        assertThat(postRepository.findById(published.getId()).orElseThrow().getViewCount()).isZero();
+
+        // when
+        PostViewCounter counter = new PostViewCounter(jdbcTemplate, event -> { });
+        for (int i = 0; i < 3; i++) counter.increment(published.getId());
+        counter.flush();
+        counter.increment(published.getId());
+        counter.flush();
+
+        // then
+        PostSummary summary = postRepository.findPublishedSummaries(pageable).getContent().get(0);
+        assertThat(summary.getViewCount()).isEqualTo(4);
+    }
+
+    @Test
+    void findSummariesByAuthorId_ShouldIncludeDrafts() {
+        // when
+        Page<PostSummary> page = postRepository.findSummariesByAuthorId(author.getId(), pageable);
+
+        // then
+        assertThat(page.getContent()).extracting(PostSummary::getTitle)
+                .containsExactly("Published Post", "Draft Post");
+        assertThat(page.getContent().get(1).getCategory()).isNull();
+        assertThat(page.getContent().get(1).getCommentCount()).isZero();
+    }
+
+    @Test
+    void findSummariesByCategoryId_ShouldFilterByCategory() {
+        // when
+        Page<PostSummary> page = postRepository.findSummariesByCategoryId(category.getId(), pageable);
+
+        // then
+        assertThat(page.getContent()).extracting(PostSummary::getId).containsExactly(published.getId());
+    }
+
+    @Test
+    void findSummariesByTagId_ShouldFilterByTag() {
+        // when
+        Page<PostSummary> page = postRepository.findSummariesByTagId(java.getId(), pageable);
+
+        // then
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).extracting(PostSummary::getId)
+                .containsExactly(published.getId(), draft.getId());
+    }
+
+    @Test
+    void findPublishedSummariesAfter_ShouldSeekPastCursorWithIdTieBreak() {
+        // given：三篇同一時間發布的文章
+        LocalDateTime sameTime = LocalDateTime.of(2025, 1, 1, 12, 0);
+        Post[] posts = new Post[3];
+        for (int i = 0; i < posts.length; i++) {
+            posts[i] = new Post();
+            posts[i].setTitle("Seek " + i);
+            posts[i].setContent("seek");
+            posts[i].setPublished(true);
+            posts[i].setAuthor(entityManager.find(User.class, author.getId()));
+            posts[i].setCreatedAt(sameTime);
+            entityManager.persist(posts[i]);
+        }
+        entityManager.flush();
+
+        // when
+        List<PostSummary> first = postRepository.findPublishedSummariesFirst(Limit.of(3));
+        PostSummary last = first.get(first.size() - 1);
+        List<PostSummary> next = postRepository.findPublishedSummariesAfter(last.getCreatedAt(), last.getId(), Limit.of(3));
+
+        // then
+        assertThat(first).extracting(PostSummary::getId)
+                .containsExactly(published.getId(), posts[2].getId(), posts[1].getId());
+        assertThat(next).extracting(PostSummary::getId).containsExactly(posts[0].getId());
+    }
+
+    @Test
+    void findStoredPublishedTagIds_ShouldIgnoreUnflushedChanges() {
+        // given：同一交易內改掉標籤與發布狀態，但尚未寫入
+        Post post = postRepository.findById(published.getId()).orElseThrow();
+        post.setTags(Set.of());
+        post.setPublished(false);
+
+        // when
+        List<Long> stored = postRepository.findStoredPublishedTagIds(published.getId());
+
+        // then
+        assertThat(stored).hasSize(2).contains(java.getId());
+        assertThat(postRepository.findStoredPublishedTagIds(draft.getId())).isEmpty();
+    }
+
+    @Test
+    void findPublishedSummariesBetween_ShouldIncludeOnlyPublishedPostsInRange() {
+        // given：月初、月底各一篇，另有下個月第一刻發布的一篇
+        LocalDateTime june = LocalDateTime.of(2025, 6, 1, 0, 0);
+        LocalDateTime[] times = {june, june.plusMonths(1).minusSeconds(1), june.plusMonths(1)};
+        Post[] posts = new Post[times.length];
+        for (int i = 0; i < posts.length; i++) {
+            posts[i] = new Post();
+            posts[i].setTitle("Archive " + i);
+            posts[i].setContent("archive");
+            posts[i].setPublished(true);
+            posts[i].setAuthor(entityManager.find(User.class, author.getId()));
+            posts[i].setCreatedAt(times[i]);
+            entityManager.persist(posts[i]);
+        }
+        entityManager.flush();
+
+        // when
+        Page<PostSummary> page = postRepository.findPublishedSummariesBetween(june, june.plusMonths(1), pageable);
+
+        // then
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).extracting(PostSummary::getId)
+                .containsExactly(posts[1].getId(), posts[0].getId());
+    }
+
+    @Test
+    void save_ShouldLinkReferencesWithoutSelectingThem() {
+        // given：TagService、CategoryService 對已知 ID 回傳的代理參照
+        Long springId = jdbcTemplate.queryForObject("SELECT id FROM tags WHERE name = 'Spring'", Long.class);
+        Post post = postRepository.findById(draft.getId()).orElseThrow();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when
+        post.setTags(new HashSet<>(Set.of(tagRepository.getReferenceById(java.getId()), tagRepository.getReferenceById(springId))));
+        post.setCategory(categoryRepository.getReferenceById(category.getId()));
+        Post saved = postRepository.save(post);
+        entityManager.flush();
+
+        // then：只寫入關聯，不逐筆查詢標籤與分類；之後讀取標籤名稱時以一次批次查詢載入
+        assertThat(statistics.getEntityStatistics(Tag.class.getName()).getFetchCount()).isZero();
+        assertThat(statistics.getEntityStatistics(Category.class.getName()).getFetchCount()).isZero();
+        long statements = statistics.getPrepareStatementCount();
+        assertThat(saved.getTags()).extracting(Tag::getName).containsExactlyInAnyOrder("Java", "Spring");
+        assertThat(statistics.getPrepareStatementCount() - statements).isLessThanOrEqualTo(1);
+
+        entityManager.clear();
+        assertThat(postRepository.findById(draft.getId()).orElseThrow().getCategory().getId()).isEqualTo(category.getId());
+    }
+
+    @Test
+    void save_StaleTagReferenceOnUpdate_ShouldFailToRetrieveTag() {
+        // given：快取仍認為存在、但已在其他副本刪除的標籤
+        Post existing = postRepository.findById(draft.getId()).orElseThrow();
+        existing.setTags(new HashSet<>(Set.of(tagRepository.getReferenceById(-1L))));
+
+        // then：merge 找不到標籤；PostController 依此清掉快取並重新確認，回 404
+        assertThatThrownBy(() -> postRepository.saveAndFlush(existing))
+                .isInstanceOf(ObjectRetrievalFailureException.class);
+    }
+
+    @Test
+    void save_StaleTagReferenceOnCreate_ShouldViolateForeignKey() {
+        // given
+        Post created = new Post();
+        created.setTitle("New Post");
+        created.setContent("content");
+        created.setAuthor(author);
+        created.setTags(new HashSet<>(Set.of(tagRepository.getReferenceById(-1L))));
+
+        // then：寫入 post_tags 違反外鍵；PostController 同樣清掉快取並重新確認
+        assertThatThrownBy(() -> postRepository.saveAndFlush(created))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void findByPublishedTrue_ShouldLoadPageInConstantStatements() throws Exception {
+        // given：每篇文章各有不同的作者、分類、標籤與評論者
+        for (int i = 0; i < 10; i++) {
+            User writer = new User();
+            writer.setUsername("writer" + i);
+            writer.setEmail("writer" + i + "@example.com");
+            writer.setPassword("secret");
+            writer.setFullName("Writer " + i);
+            entityManager.persist(writer);
+
+            Category own = new Category();
+            own.setName("Category " + i);
+            entityManager.persist(own);
+
+            Tag first = new Tag();
+            first.setName("Tag A" + i);
+            entityManager.persist(first);
+            Tag second = new Tag();
+            second.setName("Tag B" + i);
+            entityManager.persist(second);
+
+            Post post = new Post();
+            post.setTitle("Post " + i);
+            post.setContent("content " + i);
+            post.setPublished(true);
+            post.setAuthor(writer);
+            post.setCategory(own);
+            post.setTags(Set.of(first, second));
+            post.setCreatedAt(LocalDateTime.now().minusHours(i + 1));
+            entityManager.persist(post);
+
+            Comment comment = new Comment();
+            comment.setContent("comment on " + i);
+            comment.setAuthor(writer);
+            comment.setPost(post);
+            entityManager.persist(comment);
+        }
+        entityManager.flush();
+
+        // when
+        long smallPage = countStatementsToLoadAndSerialize(PageRequest.of(0, 3));
+        long fullPage = countStatementsToLoadAndSerialize(PageRequest.of(0, 10));
+
+        // then：語句數與每頁筆數無關
+        assertThat(fullPage).isEqualTo(smallPage);
+        assertThat(fullPage).isLessThanOrEqualTo(8);
+    }
+
+    // 模擬 controller 回傳 Page<Post> 時 Jackson 觸發的延遲載入
+    private long countStatementsToLoadAndSerialize(Pageable pageable) throws Exception {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Page<Post> page = postRepository.findByPublishedTrue(pageable);
+        new JacksonConfig().objectMapper().writeValueAsString(page.getContent());
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void findById_ShouldLoadContentOnlyWhenAccessed() throws Exception {
+        // given
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        Post loaded = postRepository.findById(published.getId()).orElseThrow();
+        ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(loaded));
+
+        // then：內文屬於延遲群組，未存取前不載入也不輸出
+        assertThat(Hibernate.isPropertyInitialized(loaded, "content")).isFalse();
+        assertThat(json.get("title").asText()).isEqualTo("Published Post");
+        assertThat(json.has("content")).isFalse();
+        assertThat(json.has("contentHtml")).isFalse();
+        assertThat(loaded.getContent()).isEqualTo(published.getContent());
+        assertThat(Hibernate.isPropertyInitialized(loaded, "contentHtml")).isTrue();
+    }
+
+    @Test
+    void findTagsByPostIds_ShouldReturnTagsOfEachPost() {
+        // when
+        List<Object[]> rows = postRepository.findTagsByPostIds(List.of(published.getId(), draft.getId()));
+
+        // then
+        assertThat(rows).hasSize(3);
+        assertThat(rows).filteredOn(row -> row[0].equals(draft.getId()))
+                .extracting(row -> ((Tag) row[1]).getName())
+                .containsExactly("Java");
+    }
+}
@@ -1,6 +1,9 @@
 package cc.nilm.blog.repository;
 
+import cc.nilm.blog.dto.TagCloudEntry;
+import cc.nilm.blog.entity.Post;
 import cc.nilm.blog.entity.Tag;
+import cc.nilm.blog.entity.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,10 +11,13 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @DataJpaTest
 @ActiveProfiles("test")
@@ -24,6 +30,7 @@ class TagRepositoryTest {
     private TagRepository tagRepository;
 
     private Tag tag1;
+    private Tag tag2;
 
     @BeforeEach
     void setup() {
@@ -32,13 +39,49 @@ class TagRepositoryTest {
         tag1.setName("Java");
         entityManager.persist(tag1);
 
-        Tag tag2 = new Tag();
+        tag2 = new Tag();
         tag2.setName("Spring");
         entityManager.persist(tag2);
 
         entityManager.flush();
     }
 
+    @Test
+    void recountPostCounts_ShouldCountPublishedPostsAndFeedCloud() {
+        // given：Java 有兩篇已發布、一篇草稿；Spring 只有草稿
+        User author = new User();
+        author.setUsername("writer");
+        author.setEmail("writer@example.com");
+        author.setPassword("secret");
+        author.setFullName("Writer");
+        entityManager.persist(author);
+
+        persistPost(author, true, Set.of(tag1));
+        persistPost(author, true, Set.of(tag1));
+        persistPost(author, false, Set.of(tag1, tag2));
+        entityManager.flush();
+
+        // when
+        tagRepository.recountPostCounts();
+        tagRepository.adjustPostCounts(List.of(tag2.getId()), 1);
+        entityManager.clear();
+
+        // then
+        assertThat(tagRepository.findCloudEntries()).extracting(TagCloudEntry::getName, TagCloudEntry::getPostCount)
+                .containsExactly(tuple("Java", 2L), tuple("Spring", 1L));
+    }
+
+    private void persistPost(User author, boolean published, Set<Tag> tags) {
+        Post post = new Post();
+        post.setTitle("Post");
+        post.setContent("content");
+        post.setPublished(published);
+        post.setAuthor(author);
+        post.setTags(tags);
+        post.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(post);
+    }
+
     @Test
     void findById_ShouldReturnTag() {
         // when
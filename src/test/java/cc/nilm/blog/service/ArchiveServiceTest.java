@@ -0,0 +1,75 @@
+package cc.nilm.blog.service;
+
+import cc.nilm.blog.dto.ArchiveMonth;
+import cc.nilm.blog.entity.Post;
+import cc.nilm.blog.event.PostChangedEvent;
+import cc.nilm.blog.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ArchiveServiceTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @InjectMocks
+    private ArchiveService archiveService;
+
+    private final LocalDateTime may = LocalDateTime.of(2025, 5, 20, 10, 0);
+    private final LocalDateTime june = LocalDateTime.of(2025, 6, 3, 9, 0);
+
+    @BeforeEach
+    void setup() {
+        when(postRepository.findPublishedCreatedAt()).thenReturn(List.of(
+                new Object[]{1L, may}, new Object[]{2L, june}, new Object[]{3L, june.plusDays(1)}));
+        archiveService.rebuild();
+    }
+
+    private static Post post(long id, boolean published, LocalDateTime createdAt) {
+        Post post = new Post();
+        post.setId(id);
+        post.setPublished(published);
+        post.setCreatedAt(createdAt);
+        return post;
+    }
+
+    @Test
+    void rebuild_ShouldCountPostsPerMonthNewestFirst() {
+        // then
+        assertThat(archiveService.months()).containsExactly(
+                new ArchiveMonth(2025, 6, 2), new ArchiveMonth(2025, 5, 1));
+    }
+
+    @Test
+    void onPostChanged_ShouldMovePostBetweenMonths() {
+        // when：第 1 篇改到六月、新發布一篇七月的文章、草稿不計入
+        archiveService.onPostChanged(PostChangedEvent.saved(post(1L, true, june)));
+        archiveService.onPostChanged(PostChangedEvent.saved(post(4L, true, june.plusMonths(1))));
+        archiveService.onPostChanged(PostChangedEvent.saved(post(5L, false, june)));
+
+        // then
+        assertThat(archiveService.months()).containsExactly(
+                new ArchiveMonth(2025, 7, 1), new ArchiveMonth(2025, 6, 3));
+    }
+
+    @Test
+    void onPostChanged_ShouldDropUnpublishedAndDeletedPosts() {
+        // when
+        archiveService.onPostChanged(PostChangedEvent.saved(post(2L, false, june)));
+        archiveService.onPostChanged(PostChangedEvent.deleted(3L));
+
+        // then
+        assertThat(archiveService.months()).containsExactly(new ArchiveMonth(2025, 5, 1));
+    }
+}
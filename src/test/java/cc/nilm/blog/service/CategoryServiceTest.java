@@ -13,7 +13,8 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class CategoryServiceTest {
@@ -46,4 +47,20 @@ class CategoryServiceTest {
         when(categoryRepository.findById(1L)).thenReturn(Optional.of(category1));
         assertThat(categoryService.findById(1L)).isPresent().get().isEqualTo(category1);
     }
+
+    @Test
+    void evictReference_ShouldRecheckIdAgainstDatabase() {
+        // given：分類 1 已確認存在，之後在其他副本刪除
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category1)).thenReturn(Optional.empty());
+        categoryService.findReference(1L);
+
+        // when
+        categoryService.evictReference(1L);
+        Optional<Category> result = categoryService.findReference(1L);
+
+        // then
+        assertThat(result).isEmpty();
+        verify(categoryRepository, times(2)).findById(1L);
+        verify(categoryRepository, never()).getReferenceById(any());
+    }
 }
@@ -1,15 +1,21 @@
 package cc.nilm.blog.service;
 
+import cc.nilm.blog.dto.CursorPage;
+import cc.nilm.blog.dto.PageCursor;
 import cc.nilm.blog.entity.Comment;
 import cc.nilm.blog.entity.Post;
 import cc.nilm.blog.entity.User;
+import cc.nilm.blog.event.CommentChangedEvent;
 import cc.nilm.blog.repository.CommentRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -29,6 +35,9 @@ class CommentServiceTest {
     @Mock
     private CommentRepository commentRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CommentService commentService;
 
@@ -78,6 +87,22 @@ class CommentServiceTest {
         verify(commentRepository).findAllByPostId(post.getId(), pageable);
     }
 
+    @Test
+    void findAllByPostIdAfter_ShouldSeekFromCursor() {
+        // given
+        PageCursor cursor = new PageCursor(comment1.getCreatedAt(), comment1.getId());
+        when(commentRepository.findByPostIdAfter(post.getId(), cursor.getCreatedAt(), cursor.getId(), Limit.of(21)))
+                .thenReturn(Arrays.asList(comment2));
+
+        // when
+        CursorPage<Comment> result = commentService.findAllByPostIdAfter(post.getId(), cursor, 20);
+
+        // then
+        assertThat(result.getContent()).containsExactly(comment2);
+        assertThat(result.isHasNext()).isFalse();
+        assertThat(result.getNextCursor()).isNull();
+    }
+
     @Test
     void findByAuthorId_ShouldReturnCommentsByUser() {
         // given
@@ -117,6 +142,28 @@ class CommentServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getContent()).isEqualTo("First comment");
         verify(commentRepository).save(comment1);
+        ArgumentCaptor<CommentChangedEvent> event = ArgumentCaptor.forClass(CommentChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getPostId()).isEqualTo(post.getId());
+        assertThat(event.getValue().isCreated()).isFalse();
+        assertThat(event.getValue().isDeleted()).isFalse();
+    }
+
+    @Test
+    void delete_ShouldRemoveCommentAndPublishEvent() {
+        // given
+        when(commentRepository.findById(1L)).thenReturn(Optional.of(comment1));
+
+        // when
+        commentService.delete(1L);
+
+        // then
+        verify(commentRepository).delete(comment1);
+        ArgumentCaptor<CommentChangedEvent> event = ArgumentCaptor.forClass(CommentChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getCommentId()).isEqualTo(1L);
+        assertThat(event.getValue().getPostId()).isEqualTo(post.getId());
+        assertThat(event.getValue().isDeleted()).isTrue();
     }
 
 }
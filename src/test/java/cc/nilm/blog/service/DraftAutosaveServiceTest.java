@@ -0,0 +1,120 @@
+package cc.nilm.blog.service;
+
+import cc.nilm.blog.dto.AutosaveResult;
+import cc.nilm.blog.entity.Post;
+import cc.nilm.blog.entity.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DraftAutosaveServiceTest {
+
+    @Mock
+    private PostService postService;
+
+    @InjectMocks
+    private DraftAutosaveService autosaveService;
+
+    @Test
+    void flush_ShouldWriteOnlyLatestStateOnce() {
+        // given
+        when(postService.saveDraft(anyLong(), any(), any(), any())).thenReturn(true);
+        AutosaveResult last = null;
+        for (int i = 1; i <= 100; i++) {
+            last = autosaveService.autosave(1L, 7L, i == 50 ? "新標題" : null, "內容第 " + i + " 版");
+        }
+
+        // when
+        autosaveService.flush();
+        autosaveService.flush();
+
+        // then
+        assertThat(last.getVersion()).isEqualTo(100);
+        assertThat(last.getSavedVersion()).isZero();
+        verify(postService, times(1)).saveDraft(eq(1L), eq("新標題"), eq("內容第 100 版"), any());
+        assertThat(autosaveService.autosave(1L, 7L, null, "再改一次").getSavedVersion()).isEqualTo(100);
+    }
+
+    @Test
+    void flush_Failure_ShouldRetryWithoutLosingNewerEdits() {
+        // given
+        when(postService.saveDraft(anyLong(), any(), any(), any()))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(true);
+        autosaveService.autosave(1L, 7L, "標題", "舊內容");
+
+        // when
+        autosaveService.flush();
+        autosaveService.autosave(1L, 7L, null, "新內容");
+        autosaveService.flush();
+
+        // then
+        verify(postService).saveDraft(eq(1L), eq("標題"), eq("新內容"), any());
+    }
+
+    @Test
+    void findDraftAuthorId_ShouldRejectPublishedPostsAndCacheDrafts() {
+        // given
+        User author = new User();
+        author.setId(7L);
+        Post draft = new Post();
+        draft.setAuthor(author);
+        Post published = new Post();
+        published.setAuthor(author);
+        published.setPublished(true);
+        when(postService.findById(1L)).thenReturn(Optional.of(draft));
+        when(postService.findById(2L)).thenReturn(Optional.of(published));
+
+        // then
+        assertThat(autosaveService.findDraftAuthorId(1L)).contains(7L);
+        assertThat(autosaveService.findDraftAuthorId(1L)).contains(7L);
+        assertThat(autosaveService.findDraftAuthorId(2L)).isEmpty();
+        verify(postService, times(1)).findById(1L);
+    }
+
+    @Test
+    void discard_ShouldDropPendingEdits() {
+        // given
+        autosaveService.autosave(1L, 7L, "標題", "內容");
+
+        // when
+        autosaveService.discard(1L);
+        autosaveService.flush();
+
+        // then
+        verify(postService, never()).saveDraft(anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void discard_DuringFlush_ShouldCancelWriteOfCopiedEdits() {
+        // given：寫回已複製出內容，寫入前正式儲存丟棄了草稿並提交
+        autosaveService.autosave(1L, 7L, "自動儲存標題", "自動儲存內容");
+        AtomicBoolean cancelled = new AtomicBoolean();
+        when(postService.saveDraft(eq(1L), eq("自動儲存標題"), eq("自動儲存內容"), any())).thenAnswer(invocation -> {
+            autosaveService.discard(1L);
+            cancelled.set(invocation.<BooleanSupplier>getArgument(3).getAsBoolean());
+            return !cancelled.get();
+        });
+
+        // when
+        autosaveService.flush();
+        autosaveService.flush();
+
+        // then
+        assertThat(cancelled).isTrue();
+        verify(postService, times(1)).saveDraft(anyLong(), any(), any(), any());
+    }
+}
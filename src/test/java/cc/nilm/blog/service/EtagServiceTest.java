@@ -0,0 +1,116 @@
+package cc.nilm.blog.service;
+
+import cc.nilm.blog.dto.PostSummary;
+import cc.nilm.blog.entity.Comment;
+import cc.nilm.blog.entity.Post;
+import cc.nilm.blog.event.CommentChangedEvent;
+import cc.nilm.blog.event.PostChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EtagServiceTest {
+
+    private EtagService etagService;
+    private Post post;
+
+    @BeforeEach
+    void setup() {
+        etagService = new EtagService(Duration.ofMinutes(1));
+
+        post = new Post();
+        post.setId(1L);
+        post.setTitle("Test Post");
+        post.setCreatedAt(LocalDateTime.of(2025, 1, 1, 12, 0));
+    }
+
+    @Test
+    void etagOfPost_ShouldChangeWithUpdatedAtAndComments() {
+        // given
+        String original = EtagService.etagOf(post);
+
+        // when
+        post.setUpdatedAt(LocalDateTime.of(2025, 1, 2, 12, 0));
+        String updated = EtagService.etagOf(post);
+        Comment comment = new Comment();
+        comment.setId(5L);
+        comment.setContent("nice");
+        post.setComments(Set.of(comment));
+        String commented = EtagService.etagOf(post);
+
+        // then
+        assertThat(original).startsWith("\"1-").endsWith("\"");
+        assertThat(updated).isNotEqualTo(original);
+        assertThat(commented).isNotEqualTo(updated);
+        assertThat(EtagService.etagOf(post)).isEqualTo(commented);
+    }
+
+    @Test
+    void etagOfPost_ShouldIgnoreViewCount() {
+        // given
+        String original = EtagService.etagOf(post);
+
+        // when
+        post.setViewCount(42L);
+
+        // then：瀏覽次數寫回後仍視為同一版本
+        assertThat(EtagService.etagOf(post)).isEqualTo(original);
+    }
+
+    @Test
+    void matches_ShouldHandleListsWildcardAndWeakValidators() {
+        assertThat(EtagService.matches("\"a\", W/\"b\"", "\"b\"")).isTrue();
+        assertThat(EtagService.matches("*", "\"b\"")).isTrue();
+        assertThat(EtagService.matches("\"a\"", "\"b\"")).isFalse();
+        assertThat(EtagService.matches(null, "\"b\"")).isFalse();
+    }
+
+    @Test
+    void knownEtag_ShouldBeEvictedByPostAndCommentChanges() {
+        // given
+        String postKey = EtagService.postKey(1L);
+        String listingKey = EtagService.listingKey("published", 0, 10);
+        String listingEtag = EtagService.etagOf(new PageImpl<>(List.of(new PostSummary()), PageRequest.of(0, 10), 1));
+        etagService.remember(postKey, EtagService.etagOf(post), etagService.currentVersion());
+        etagService.remember(listingKey, listingEtag, etagService.currentVersion());
+        assertThat(etagService.knownEtag(listingKey)).isEqualTo(listingEtag);
+
+        // when
+        etagService.onCommentChanged(CommentChangedEvent.created(5L, 1L));
+
+        // then
+        assertThat(etagService.knownEtag(postKey)).isNull();
+        assertThat(etagService.knownEtag(listingKey)).isNull();
+    }
+
+    @Test
+    void remember_ShouldSkipEtagLoadedBeforeConcurrentChange() {
+        // given：查詢開始後才提交的異動
+        long version = etagService.currentVersion();
+        etagService.onPostChanged(PostChangedEvent.deleted(2L));
+
+        // when
+        etagService.remember(EtagService.postKey(1L), EtagService.etagOf(post), version);
+
+        // then
+        assertThat(etagService.knownEtag(EtagService.postKey(1L))).isNull();
+    }
+
+    @Test
+    void knownEtag_ShouldExpireAfterTtl() {
+        // given
+        EtagService shortLived = new EtagService(Duration.ZERO);
+        shortLived.remember(EtagService.postKey(1L), "\"x\"", shortLived.currentVersion());
+
+        // then
+        assertThat(shortLived.knownEtag(EtagService.postKey(1L))).isNull();
+    }
+}
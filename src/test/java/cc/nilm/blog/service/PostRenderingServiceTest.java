@@ -0,0 +1,58 @@
+package cc.nilm.blog.service;
+
+import cc.nilm.blog.entity.Post;
+import cc.nilm.blog.repository.PostRepository;
+import cc.nilm.blog.service.markdown.MarkdownRenderer;
+import cc.nilm.blog.service.markdown.RenderedContent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PostRenderingServiceTest {
+
+    @Mock
+    private MarkdownRenderer markdownRenderer;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private PostRenderingService renderingService;
+
+    @Test
+    void render_ShouldSkipUnchangedContent() {
+        // given
+        Post post = new Post();
+        post.setContent("# Hello");
+        when(markdownRenderer.render("# Hello"))
+                .thenReturn(new RenderedContent("<h1 id=\"hello\">Hello</h1>", List.of(), 1, "Hello"));
+
+        // when
+        boolean first = renderingService.render(post);
+        boolean second = renderingService.render(post);
+        post.setContent("# Hello again");
+        when(markdownRenderer.render("# Hello again"))
+                .thenReturn(new RenderedContent("<h1 id=\"hello-again\">Hello again</h1>", List.of(), 1, "Hello again"));
+        boolean third = renderingService.render(post);
+
+        // then
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+        assertThat(third).isTrue();
+        assertThat(post.getContentHtml()).contains("Hello again");
+        assertThat(post.getContentHash()).isEqualTo(PostRenderingService.hash("# Hello again"));
+        verify(markdownRenderer, times(2)).render(anyString());
+    }
+}
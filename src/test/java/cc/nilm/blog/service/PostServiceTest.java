@@ -1,26 +1,41 @@
 package cc.nilm.blog.service;
 
+import cc.nilm.blog.dto.CursorPage;
+import cc.nilm.blog.dto.PageCursor;
+import cc.nilm.blog.dto.PostSearchHit;
+import cc.nilm.blog.dto.PostSummary;
 import cc.nilm.blog.entity.Category;
 import cc.nilm.blog.entity.Post;
 import cc.nilm.blog.entity.Tag;
 import cc.nilm.blog.entity.User;
+import cc.nilm.blog.event.PostChangedEvent;
 import cc.nilm.blog.repository.PostRepository;
+import cc.nilm.blog.service.cache.PostCache;
+import cc.nilm.blog.service.cache.PostSnapshot;
+import cc.nilm.blog.service.revision.PostRevisionService;
+import cc.nilm.blog.service.search.PostSearchEngine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +44,27 @@ class PostServiceTest {
     @Mock
     private PostRepository postRepository;
 
+    @Mock
+    private PostSearchEngine postSearchEngine;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PostCache postCache;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private PostRenderingService postRenderingService;
+
+    @Mock
+    private PostRevisionService postRevisionService;
+
+    @Mock
+    private TagService tagService;
+
     @InjectMocks
     private PostService postService;
 
@@ -88,6 +124,64 @@ class PostServiceTest {
         verify(postRepository).findByPublishedTrue(pageable);
     }
 
+    @Test
+    void findPublishedSummaries_ShouldAttachTagsInOneQuery() {
+        // given
+        PostSummary summary1 = new PostSummary(1L, "First Post", "Content", 1L, "Test User",
+                1L, "Technology", LocalDateTime.now(), 2L, 0L);
+        PostSummary summary2 = new PostSummary(2L, "Second Post", "Content", 1L, "Test User",
+                null, null, LocalDateTime.now(), 0L, 0L);
+        when(postRepository.findPublishedSummaries(pageable))
+                .thenReturn(new PageImpl<>(Arrays.asList(summary1, summary2)));
+        Tag tag = post1.getTags().iterator().next();
+        List<Object[]> tagRows = Collections.singletonList(new Object[]{1L, tag});
+        when(postRepository.findTagsByPostIds(any())).thenReturn(tagRows);
+
+        // when
+        Page<PostSummary> result = postService.findPublishedSummaries(pageable);
+
+        // then
+        assertThat(result.getContent().get(0).getTags()).containsExactly(tag);
+        assertThat(result.getContent().get(1).getTags()).isEmpty();
+        verify(postRepository, times(1)).findTagsByPostIds(any());
+    }
+
+    @Test
+    void findPublishedSummariesAfter_ShouldReturnNextCursorWithoutCounting() {
+        // given：要 1 筆，repository 多回傳 1 筆代表還有下一頁
+        LocalDateTime createdAt = LocalDateTime.of(2025, 5, 14, 10, 30);
+        PageCursor cursor = new PageCursor(createdAt.plusDays(1), 9L);
+        PostSummary summary1 = new PostSummary(5L, "First Post", "Content", 1L, "Test User",
+                null, null, createdAt, 0L, 0L);
+        PostSummary summary2 = new PostSummary(4L, "Second Post", "Content", 1L, "Test User",
+                null, null, createdAt, 0L, 0L);
+        when(postRepository.findPublishedSummariesAfter(cursor.getCreatedAt(), cursor.getId(), Limit.of(2)))
+                .thenReturn(Arrays.asList(summary1, summary2));
+
+        // when
+        CursorPage<PostSummary> result = postService.findPublishedSummariesAfter(cursor, 1);
+
+        // then
+        assertThat(result.getContent()).containsExactly(summary1);
+        assertThat(result.isHasNext()).isTrue();
+        assertThat(PageCursor.decode(result.getNextCursor())).isEqualTo(new PageCursor(createdAt, 5L));
+        verify(postRepository, never()).count();
+    }
+
+    @Test
+    void findPublishedSummariesAfter_ShouldStopOnLastPage() {
+        // given
+        when(postRepository.findPublishedSummariesFirst(Limit.of(11))).thenReturn(Collections.emptyList());
+
+        // when
+        CursorPage<PostSummary> result = postService.findPublishedSummariesAfter(null, 10);
+
+        // then
+        assertThat(result.getContent()).isEmpty();
+        assertThat(result.isHasNext()).isFalse();
+        assertThat(result.getNextCursor()).isNull();
+    }
+
     @Test
     void findByAuthor_ShouldReturnAuthorPosts() {
         // given
@@ -103,18 +197,27 @@ class PostServiceTest {
     }
 
     @Test
-    void searchPosts_ShouldReturnMatchingPosts() {
-        // given
+    void searchPosts_ShouldKeepEngineRankingAndAttachHighlight() {
+        // given：搜尋引擎依相關度回傳 2 在前、1 在後
         String query = "Post";
-        Page<Post> postPage = new PageImpl<>(Arrays.asList(post1, post2));
-        when(postRepository.findByTitleContainingOrContentContaining(query, query, pageable)).thenReturn(postPage);
+        List<PostSearchHit> hits = Arrays.asList(
+                new PostSearchHit(2L, "Second <mark>Post</mark>", 0.9),
+                new PostSearchHit(1L, "First <mark>Post</mark>", 0.4));
+        when(postSearchEngine.search(query, pageable)).thenReturn(new PageImpl<>(hits, pageable, 2));
+        PostSummary summary1 = new PostSummary(1L, "First Post", "Content", 1L, "Test User",
+                null, null, LocalDateTime.now(), 0L, 0L);
+        PostSummary summary2 = new PostSummary(2L, "Second Post", "Content", 1L, "Test User",
+                null, null, LocalDateTime.now(), 0L, 0L);
+        when(postRepository.findSummariesByIdIn(Arrays.asList(2L, 1L))).thenReturn(Arrays.asList(summary1, summary2));
 
         // when
-        Page<Post> result = postService.searchPosts(query, pageable);
+        Page<PostSummary> result = postService.searchPosts(query, pageable);
 
         // then
-        assertThat(result.getContent()).hasSize(2);
-        verify(postRepository).findByTitleContainingOrContentContaining(query, query, pageable);
+        assertThat(result.getContent()).extracting(PostSummary::getId).containsExactly(2L, 1L);
+        assertThat(result.getContent().get(0).getHighlight()).isEqualTo("Second <mark>Post</mark>");
+        assertThat(result.getContent().get(0).getExcerpt()).isEqualTo("Content");
+        assertThat(result.getTotalElements()).isEqualTo(2);
     }
 
     @Test
@@ -163,16 +266,39 @@ class PostServiceTest {
     }
 
     @Test
-    void findByIdWithComments_ShouldReturnPostWithComments() {
+    void findSummariesByIds_ShouldKeepRequestedOrderAndSkipMissingPosts() {
         // given
+        PostSummary summary1 = new PostSummary(1L, "First Post", "Content", 1L, "Test User",
+                null, null, LocalDateTime.now(), 0L, 0L);
+        PostSummary summary2 = new PostSummary(2L, "Second Post", "Content", 1L, "Test User",
+                null, null, LocalDateTime.now(), 0L, 0L);
+        List<Long> ids = Arrays.asList(2L, 3L, 1L);
+        when(postRepository.findSummariesByIdIn(ids)).thenReturn(Arrays.asList(summary1, summary2));
+        when(postRepository.findTagsByPostIds(any())).thenReturn(Collections.emptyList());
+
+        // when
+        List<PostSummary> result = postService.findSummariesByIds(ids);
+
+        // then
+        assertThat(result).extracting(PostSummary::getId).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void findByIdWithComments_ShouldLoadSnapshotThroughCacheInTransaction() {
+        // given：快取未命中，由 loader 在交易內查詢
+        when(postCache.get(eq(1L), any())).thenAnswer(invocation ->
+                invocation.<Supplier<Optional<PostSnapshot>>>getArgument(1).get().map(PostSnapshot::toPost));
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
         when(postRepository.findByIdWithComments(1L)).thenReturn(Optional.of(post1));
 
         // when
         Optional<Post> result = postService.findByIdWithComments(1L);
 
-        // then
+        // then：回傳的是副本，不是 repository 的實體
         assertThat(result).isPresent();
         assertThat(result.get().getTitle()).isEqualTo("First Post");
+        assertThat(result.get()).isNotSameAs(post1);
         verify(postRepository).findByIdWithComments(1L);
     }
 
@@ -187,7 +313,90 @@ class PostServiceTest {
         // then
         assertThat(result).isNotNull();
         assertThat(result.getTitle()).isEqualTo("First Post");
+        verify(postRenderingService).render(post1);
         verify(postRepository).save(post1);
+        verify(postRevisionService).record(post1);
+        verify(eventPublisher).publishEvent(argThat((Object e) ->
+                e instanceof PostChangedEvent event && !event.isDeleted() && event.getPost() == post1));
+    }
+
+    @Test
+    void save_ShouldAdjustTagCountsFromStoredState() {
+        // given：資料庫中仍是已發布、帶標籤 1、2；這次改為只帶標籤 1 並取消發布
+        when(postRepository.findStoredPublishedTagIds(1L)).thenReturn(List.of(1L, 2L));
+        when(postRepository.save(post1)).thenReturn(post1);
+        post1.setPublished(false);
+
+        // when
+        postService.save(post1);
+
+        // then
+        verify(tagService).adjustPostCounts(List.of(1L, 2L), List.of());
+    }
+
+    @Test
+    void saveDraft_ShouldUpdateOnlyUnpublishedPosts() {
+        // given
+        post2.setPublished(false);
+        when(postRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(post1));
+        when(postRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(post2));
+
+        // when
+        boolean publishedResult = postService.saveDraft(1L, "改標題", "改內容", () -> false);
+        boolean draftResult = postService.saveDraft(2L, null, "草稿新內容", () -> false);
+
+        // then
+        assertThat(publishedResult).isFalse();
+        assertThat(post1.getTitle()).isEqualTo("First Post");
+        assertThat(draftResult).isTrue();
+        assertThat(post2.getTitle()).isEqualTo("Second Post");
+        assertThat(post2.getContent()).isEqualTo("草稿新內容");
+        verify(postRenderingService).render(post2);
+        verifyNoInteractions(postRevisionService);
+        verify(eventPublisher).publishEvent(argThat((Object e) ->
+                e instanceof PostChangedEvent event && event.getPost() == post2));
+    }
+
+    @Test
+    void saveDraft_DiscardedAfterLock_ShouldKeepSavedContent() {
+        // given：正式儲存已在寫回取得列鎖前丟棄自動儲存內容並提交
+        post2.setPublished(false);
+        when(postRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(post2));
+
+        // when
+        boolean result = postService.saveDraft(2L, "舊的自動儲存標題", "舊的自動儲存內容", () -> true);
+
+        // then
+        assertThat(result).isFalse();
+        assertThat(post2.getTitle()).isEqualTo("Second Post");
+        verifyNoInteractions(postRenderingService, eventPublisher);
+    }
+
+    @Test
+    void publishScheduled_ShouldPublishOnlyDuePosts() {
+        // given
+        LocalDateTime now = LocalDateTime.of(2025, 6, 1, 9, 0);
+        post2.setPublishAt(now.minusMinutes(1));
+        post1.setPublished(false);
+        post1.setPublishAt(now.plusHours(1));
+        when(postRepository.findById(2L)).thenReturn(Optional.of(post2));
+        when(postRepository.findById(1L)).thenReturn(Optional.of(post1));
+        when(postRepository.save(post2)).thenReturn(post2);
+
+        // when
+        boolean dueResult = postService.publishScheduled(2L, now);
+        boolean futureResult = postService.publishScheduled(1L, now);
+
+        // then
+        assertThat(dueResult).isTrue();
+        assertThat(post2.isPublished()).isTrue();
+        assertThat(post2.getCreatedAt()).isEqualTo(now.minusMinutes(1));
+        assertThat(post2.getPublishAt()).isNull();
+        assertThat(futureResult).isFalse();
+        assertThat(post1.isPublished()).isFalse();
+        verify(postRepository, never()).save(post1);
+        verify(eventPublisher).publishEvent(argThat((Object e) ->
+                e instanceof PostChangedEvent event && event.getPost() == post2));
     }
 
     @Test
@@ -200,6 +409,10 @@ class PostServiceTest {
         postService.delete(postId);
 
         // then
+        verify(tagService).adjustPostCounts(List.of(), List.of());
+        verify(postRevisionService).deleteRevisions(postId);
         verify(postRepository).deleteById(postId);
+        verify(eventPublisher).publishEvent(argThat((Object e) ->
+                e instanceof PostChangedEvent event && event.isDeleted() && event.getPostId().equals(postId)));
     }
 }
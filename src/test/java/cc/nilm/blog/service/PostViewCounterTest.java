@@ -0,0 +1,89 @@
+package cc.nilm.blog.service;
+
+import cc.nilm.blog.event.PostViewsFlushedEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PostViewCounterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private PostViewCounter postViewCounter;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_ShouldWriteConcurrentIncrementsInOneBatchOrderedById() throws Exception {
+        // given：8 個執行緒同時瀏覽兩篇文章
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    postViewCounter.increment(2L);
+                    if (i % 2 == 0) postViewCounter.increment(1L);
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        // when
+        postViewCounter.flush();
+
+        // then
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(PostViewCounter.FLUSH_SQL), batch.capture());
+        assertThat(batch.getValue()).containsExactly(new Object[]{4_000L, 1L}, new Object[]{8_000L, 2L});
+        assertThat(postViewCounter.pendingViews(2L)).isZero();
+        ArgumentCaptor<PostViewsFlushedEvent> event = ArgumentCaptor.forClass(PostViewsFlushedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getViews()).containsEntry(1L, 4_000L).containsEntry(2L, 8_000L);
+    }
+
+    @Test
+    void flush_WithNothingPending_ShouldNotTouchDatabase() {
+        // when
+        postViewCounter.flush();
+
+        // then
+        verifyNoInteractions(jdbcTemplate, eventPublisher);
+    }
+
+    @Test
+    void flush_WhenDatabaseFails_ShouldKeepCountsForNextRound() {
+        // given
+        postViewCounter.increment(1L);
+        postViewCounter.increment(1L);
+        when(jdbcTemplate.batchUpdate(eq(PostViewCounter.FLUSH_SQL), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        // when
+        postViewCounter.flush();
+
+        // then
+        assertThat(postViewCounter.pendingViews(1L)).isEqualTo(2);
+        verifyNoInteractions(eventPublisher);
+    }
+}
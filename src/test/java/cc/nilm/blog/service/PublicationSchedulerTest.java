@@ -0,0 +1,168 @@
+package cc.nilm.blog.service;
+
+import cc.nilm.blog.entity.Post;
+import cc.nilm.blog.event.PostChangedEvent;
+import cc.nilm.blog.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PublicationSchedulerTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private PostService postService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ScheduledExecutorService timer;
+
+    @Mock
+    private ScheduledFuture<?> future;
+
+    private MutableClock clock;
+    private PublicationScheduler scheduler;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setup() {
+        clock = new MutableClock(Instant.parse("2025-06-01T08:00:00Z"));
+        now = LocalDateTime.now(clock);
+        scheduler = new PublicationScheduler(postRepository, postService, transactionTemplate, jdbcTemplate, clock, timer);
+        doReturn(future).when(timer).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    }
+
+    private static Object[] scheduled(long id, LocalDateTime publishAt) {
+        return new Object[]{id, publishAt};
+    }
+
+    @Test
+    void fireDue_ShouldPublishDuePostsAndArmForNext() {
+        // given
+        when(postRepository.findScheduledPublications()).thenReturn(List.of(
+                scheduled(1L, now.plusHours(1)), scheduled(2L, now.plusHours(3))));
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(postService.publishScheduled(eq(1L), any())).thenReturn(true);
+        scheduler.reload();
+
+        // when
+        clock.advance(Duration.ofHours(1));
+        scheduler.fireDue();
+
+        // then
+        verify(timer).schedule(any(Runnable.class), eq(Duration.ofHours(1).toMillis()), eq(TimeUnit.MILLISECONDS));
+        verify(timer).schedule(any(Runnable.class), eq(Duration.ofHours(2).toMillis()), eq(TimeUnit.MILLISECONDS));
+        verify(postService).publishScheduled(1L, now.plusHours(1));
+        verify(postService, never()).publishScheduled(eq(2L), any());
+        assertThat(scheduler.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void onPostChanged_ShouldRearmOnlyWhenEarliestChanges() {
+        // given
+        when(postRepository.findScheduledPublications()).thenReturn(List.<Object[]>of(scheduled(1L, now.plusHours(2))));
+        scheduler.reload();
+
+        Post later = new Post();
+        later.setId(2L);
+        later.setPublishAt(now.plusHours(5));
+
+        Post earlier = new Post();
+        earlier.setId(1L);
+        earlier.setPublishAt(now.plusMinutes(30));
+
+        // when
+        scheduler.onPostChanged(PostChangedEvent.saved(later));
+        scheduler.onPostChanged(PostChangedEvent.saved(earlier));
+        scheduler.onPostChanged(PostChangedEvent.deleted(2L));
+
+        // then
+        verify(timer).schedule(any(Runnable.class), eq(Duration.ofHours(2).toMillis()), eq(TimeUnit.MILLISECONDS));
+        verify(timer).schedule(any(Runnable.class), eq(Duration.ofMinutes(30).toMillis()), eq(TimeUnit.MILLISECONDS));
+        verify(timer, times(2)).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+        verify(future).cancel(false);
+        assertThat(scheduler.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void onPostChanged_ShouldDropPublishedOrUnscheduledPosts() {
+        // given
+        when(postRepository.findScheduledPublications()).thenReturn(List.of(
+                scheduled(1L, now.plusHours(1)), scheduled(2L, now.plusHours(2))));
+        scheduler.reload();
+
+        Post published = new Post();
+        published.setId(1L);
+        published.setPublished(true);
+
+        Post unscheduled = new Post();
+        unscheduled.setId(2L);
+
+        // when
+        scheduler.onPostChanged(PostChangedEvent.saved(published));
+        scheduler.onPostChanged(PostChangedEvent.saved(unscheduled));
+
+        // then
+        assertThat(scheduler.pendingCount()).isZero();
+        verify(future, times(2)).cancel(false);
+        verifyNoInteractions(postService);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package cc.nilm.blog.service;
+
+import cc.nilm.blog.entity.Post;
+import cc.nilm.blog.entity.Tag;
+import cc.nilm.blog.event.PostChangedEvent;
+import cc.nilm.blog.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RelatedPostsServiceTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @InjectMocks
+    private RelatedPostsService relatedPostsService;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setup() {
+        // 標籤：1=Java 2=Spring 3=JPA 4=旅遊
+        List<Object[]> rows = new ArrayList<>();
+        addRows(rows, 1L, now.minusDays(5), 1L, 2L, 3L);
+        addRows(rows, 2L, now.minusDays(4), 1L, 2L);
+        addRows(rows, 3L, now.minusDays(3), 1L, 2L, 3L, 4L);
+        addRows(rows, 4L, now.minusDays(2), 4L);
+        addRows(rows, 5L, now.minusDays(1), 3L);
+        when(postRepository.findPublishedTagIds()).thenReturn(rows);
+        relatedPostsService.rebuild();
+    }
+
+    private static void addRows(List<Object[]> rows, Long postId, LocalDateTime createdAt, Long... tagIds) {
+        for (Long tagId : tagIds) rows.add(new Object[]{postId, createdAt, tagId});
+    }
+
+    @Test
+    void relatedPostIds_ShouldRankByJaccardSimilarity() {
+        // when：第 1 篇 {1,2,3}；第 3 篇 3/4，第 2 篇 2/3，第 5 篇 1/3，第 4 篇沒有共同標籤
+        List<Long> related = relatedPostsService.relatedPostIds(1L, 10);
+
+        // then
+        assertThat(related).containsExactly(3L, 2L, 5L);
+        assertThat(relatedPostsService.relatedPostIds(1L, 2)).containsExactly(3L, 2L);
+    }
+
+    @Test
+    void onPostChanged_ShouldReindexTagsIncrementally() {
+        // given：第 4 篇改成 {1,2,3}，與第 1 篇完全相同
+        Post updated = new Post();
+        updated.setId(4L);
+        updated.setPublished(true);
+        updated.setCreatedAt(now.minusDays(2));
+        updated.setTags(Set.of(new Tag(1L, "Java", null), new Tag(2L, "Spring", null), new Tag(3L, "JPA", null)));
+
+        // when
+        relatedPostsService.onPostChanged(PostChangedEvent.saved(updated));
+
+        // then
+        assertThat(relatedPostsService.relatedPostIds(1L, 10)).containsExactly(4L, 3L, 2L, 5L);
+        // 分數相同時較新的文章在前
+        assertThat(relatedPostsService.relatedPostIds(3L, 10)).startsWith(4L, 1L);
+    }
+
+    @Test
+    void onPostChanged_ShouldDropUnpublishedAndDeletedPosts() {
+        // given
+        Post unpublished = new Post();
+        unpublished.setId(3L);
+        unpublished.setPublished(false);
+
+        // when
+        relatedPostsService.onPostChanged(PostChangedEvent.saved(unpublished));
+        relatedPostsService.onPostChanged(PostChangedEvent.deleted(2L));
+
+        // then
+        assertThat(relatedPostsService.relatedPostIds(1L, 10)).containsExactly(5L);
+        assertThat(relatedPostsService.relatedPostIds(3L, 10)).isEmpty();
+    }
+}
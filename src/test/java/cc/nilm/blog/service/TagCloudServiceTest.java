@@ -0,0 +1,75 @@
+package cc.nilm.blog.service;
+
+import cc.nilm.blog.dto.TagCloudEntry;
+import cc.nilm.blog.entity.Post;
+import cc.nilm.blog.event.PostChangedEvent;
+import cc.nilm.blog.repository.TagRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TagCloudServiceTest {
+
+    @Mock
+    private TagRepository tagRepository;
+
+    @Mock
+    private TagService tagService;
+
+    private TagCloudService tagCloudService;
+
+    @BeforeEach
+    void setup() {
+        Clock clock = Clock.fixed(Instant.parse("2025-06-01T12:00:00Z"), ZoneOffset.UTC);
+        tagCloudService = new TagCloudService(tagRepository, tagService, Duration.ofMinutes(5), clock);
+    }
+
+    @Test
+    void cloud_ShouldServeSnapshotUntilPostsChange() {
+        // given
+        when(tagRepository.findCloudEntries()).thenReturn(
+                List.of(new TagCloudEntry(1L, "Java", null, 3)),
+                List.of(new TagCloudEntry(1L, "Java", null, 4)));
+
+        // when
+        TagCloudService.TagCloud first = tagCloudService.cloud();
+        TagCloudService.TagCloud cached = tagCloudService.cloud();
+        Post post = new Post();
+        post.setId(1L);
+        tagCloudService.onPostChanged(PostChangedEvent.saved(post));
+        TagCloudService.TagCloud rebuilt = tagCloudService.cloud();
+
+        // then
+        assertThat(cached).isSameAs(first);
+        assertThat(rebuilt.tags().get(0).getPostCount()).isEqualTo(4);
+        assertThat(rebuilt.etag()).isNotEqualTo(first.etag());
+        verify(tagRepository, times(2)).findCloudEntries();
+    }
+
+    @Test
+    void recount_ShouldRecountAndDropSnapshot() {
+        // given
+        when(tagRepository.findCloudEntries()).thenReturn(List.of());
+        tagCloudService.cloud();
+
+        // when
+        tagCloudService.recount();
+        tagCloudService.cloud();
+
+        // then
+        verify(tagService).recountPostCounts();
+        verify(tagRepository, times(2)).findCloudEntries();
+    }
+}
@@ -11,7 +11,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -68,6 +70,63 @@ class TagServiceTest {
         assertThat(tagService.save(tag1)).isEqualTo(tag1);
     }
 
+    @Test
+    void findReferences_ShouldQueryOnlyUnknownIdsInOneBatch() {
+        // given
+        tag1.setId(1L);
+        tag2.setId(2L);
+        Tag reference = new Tag(1L, null, null);
+        when(tagRepository.findAllById(Set.of(1L, 2L, 3L))).thenReturn(List.of(tag1, tag2));
+        when(tagRepository.getReferenceById(1L)).thenReturn(reference);
+
+        // when：第一次全部未知；第二次 1 已確認存在，3 仍不存在
+        Map<Long, Tag> first = tagService.findReferences(List.of(1L, 2L, 3L));
+        Map<Long, Tag> second = tagService.findReferences(List.of(1L, 3L));
+
+        // then
+        assertThat(first).containsOnlyKeys(1L, 2L);
+        assertThat(second).containsOnlyKeys(1L);
+        assertThat(second.get(1L)).isSameAs(reference);
+        verify(tagRepository).findAllById(Set.of(3L));
+    }
+
+    @Test
+    void evictReferences_ShouldRecheckIdsAgainstDatabase() {
+        // given：標籤 1 已確認存在，之後在其他副本刪除
+        tag1.setId(1L);
+        when(tagRepository.findAllById(Set.of(1L))).thenReturn(List.of(tag1)).thenReturn(List.of());
+        tagService.findReferences(List.of(1L));
+
+        // when
+        tagService.evictReferences(List.of(1L));
+        Map<Long, Tag> result = tagService.findReferences(List.of(1L));
+
+        // then
+        assertThat(result).isEmpty();
+        verify(tagRepository, times(2)).findAllById(Set.of(1L));
+        verify(tagRepository, never()).getReferenceById(any());
+    }
+
+    @Test
+    void adjustPostCounts_ShouldOnlyTouchChangedTags() {
+        // when
+        tagService.adjustPostCounts(List.of(1L, 2L), List.of(2L, 3L));
+
+        // then
+        verify(tagRepository).adjustPostCounts(Set.of(3L), 1);
+        verify(tagRepository).adjustPostCounts(Set.of(1L), -1);
+        verifyNoMoreInteractions(tagRepository);
+    }
+
+    @Test
+    void adjustPostCounts_ShouldSkipUnchangedTags() {
+        // when
+        tagService.adjustPostCounts(List.of(1L), List.of(1L));
+
+        // then
+        verifyNoInteractions(tagRepository);
+    }
+
     @Test
     void delete() {
         tagService.delete(1L);
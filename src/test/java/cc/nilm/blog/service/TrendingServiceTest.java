@@ -0,0 +1,175 @@
+package cc.nilm.blog.service;
+
+import cc.nilm.blog.entity.Post;
+import cc.nilm.blog.event.CommentChangedEvent;
+import cc.nilm.blog.event.PostChangedEvent;
+import cc.nilm.blog.event.PostViewsFlushedEvent;
+import cc.nilm.blog.repository.CommentRepository;
+import cc.nilm.blog.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TrendingServiceTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    private MutableClock clock;
+    private TrendingService trendingService;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setup() {
+        clock = new MutableClock(Instant.parse("2025-06-01T12:00:00Z"));
+        now = LocalDateTime.now(clock);
+        trendingService = new TrendingService(postRepository, commentRepository, Duration.ofHours(24), 3, clock);
+    }
+
+    private void rebuildWith(List<Object[]> posts, List<Object[]> comments) {
+        when(postRepository.findPublishedActivity()).thenReturn(posts);
+        when(commentRepository.findPublishedCommentTimesSince(any())).thenReturn(comments);
+        trendingService.rebuild();
+    }
+
+    private static Object[] post(long id, LocalDateTime createdAt, long views) {
+        return new Object[]{id, createdAt, views};
+    }
+
+    @Test
+    void rebuild_ShouldDecayOldActivity() {
+        // given：舊文章累計瀏覽多，但已過了好幾個半衰期
+        List<Object[]> comments = new ArrayList<>();
+        comments.add(new Object[]{3L, now.minusHours(1)});
+        rebuildWith(List.of(
+                post(1L, now.minusDays(10), 2_000),
+                post(2L, now.minusHours(2), 20),
+                post(3L, now.minusHours(2), 20)), comments);
+
+        // then：同時發布的兩篇，有新評論的排前面；十天前的文章墊底
+        assertThat(trendingService.topPostIds(10)).containsExactly(3L, 2L, 1L);
+    }
+
+    @Test
+    void onViewsFlushed_ShouldPromotePostsAndIgnoreUntrackedOnes() {
+        // given
+        rebuildWith(List.of(post(1L, now, 0), post(2L, now, 0)), List.of());
+
+        // when
+        clock.advance(Duration.ofHours(1));
+        trendingService.onViewsFlushed(new PostViewsFlushedEvent(Map.of(2L, 5L, 99L, 1_000L)));
+
+        // then
+        assertThat(trendingService.topPostIds(10)).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void recentActivity_ShouldOutweighEqualOlderActivity() {
+        // given：第 1 篇先獲得瀏覽，一天後第 2 篇獲得同樣多的瀏覽
+        rebuildWith(List.of(post(1L, now, 0), post(2L, now, 0)), List.of());
+        trendingService.onViewsFlushed(new PostViewsFlushedEvent(Map.of(1L, 100L)));
+
+        // when
+        clock.advance(Duration.ofDays(1));
+        trendingService.onViewsFlushed(new PostViewsFlushedEvent(Map.of(2L, 100L)));
+
+        // then
+        assertThat(trendingService.topPostIds(10)).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void onPostChanged_ShouldTrackNewPostsAndRefillAfterRemoval() {
+        // given：只保留前 3 名
+        rebuildWith(List.of(post(1L, now, 40), post(2L, now, 30), post(3L, now, 20), post(4L, now, 10)), List.of());
+        assertThat(trendingService.topPostIds(10)).containsExactly(1L, 2L, 3L);
+
+        // when
+        Post unpublished = new Post();
+        unpublished.setId(1L);
+        unpublished.setPublished(false);
+        trendingService.onPostChanged(PostChangedEvent.saved(unpublished));
+
+        // then：第 4 篇遞補進前 3 名
+        assertThat(trendingService.topPostIds(10)).containsExactly(2L, 3L, 4L);
+
+        // when：新發布的文章以發布時間起算，並可由評論推上榜首
+        Post fresh = new Post();
+        fresh.setId(5L);
+        fresh.setPublished(true);
+        fresh.setCreatedAt(now);
+        trendingService.onPostChanged(PostChangedEvent.saved(fresh));
+        for (long commentId = 1; commentId <= 7; commentId++) {
+            trendingService.onCommentChanged(CommentChangedEvent.created(commentId, 5L));
+        }
+        // 編輯評論不算新的互動
+        for (int i = 0; i < 10; i++) {
+            trendingService.onCommentChanged(CommentChangedEvent.updated(8L, 4L));
+        }
+
+        // then
+        assertThat(trendingService.topPostIds(10)).containsExactly(5L, 2L, 3L);
+    }
+
+    @Test
+    void scores_ShouldStayFiniteAndOrderedAfterLongUptime() {
+        // given
+        rebuildWith(List.of(post(1L, now, 0), post(2L, now, 0)), List.of());
+
+        // when：運行一年，期間持續有瀏覽
+        for (int day = 0; day < 365; day++) {
+            clock.advance(Duration.ofDays(1));
+            trendingService.onViewsFlushed(new PostViewsFlushedEvent(Map.of(1L, 10L, 2L, day % 2 == 0 ? 9L : 11L)));
+        }
+        trendingService.onViewsFlushed(new PostViewsFlushedEvent(Map.of(1L, 1L)));
+
+        // then
+        assertThat(trendingService.topPostIds(10)).containsExactly(1L, 2L);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package cc.nilm.blog.service.cache;
+
+import cc.nilm.blog.config.JacksonConfig;
+import cc.nilm.blog.dto.PostCacheStats;
+import cc.nilm.blog.dto.PostDto;
+import cc.nilm.blog.entity.Comment;
+import cc.nilm.blog.entity.Post;
+import cc.nilm.blog.entity.Tag;
+import cc.nilm.blog.entity.User;
+import cc.nilm.blog.event.CommentChangedEvent;
+import cc.nilm.blog.event.PostChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PostCacheTest {
+
+    @Mock
+    private ObjectProvider<PostSnapshotStore> secondTierProvider;
+
+    private InMemoryPostSnapshotStore secondTier;
+    private PostCache postCache;
+    private Post post;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setup() {
+        secondTier = new InMemoryPostSnapshotStore();
+        when(secondTierProvider.getIfAvailable()).thenReturn(secondTier);
+        postCache = new PostCache(100, Duration.ofMinutes(1), secondTierProvider);
+
+        User author = new User();
+        author.setId(1L);
+        author.setUsername("writer");
+
+        post = new Post();
+        post.setId(1L);
+        post.setTitle("Cached Post");
+        post.setContent("content");
+        post.setAuthor(author);
+        post.setCreatedAt(LocalDateTime.now());
+        post.setTags(Set.of(new Tag(1L, "Java", null)));
+
+        Comment comment = new Comment();
+        comment.setId(1L);
+        comment.setContent("comment");
+        comment.setAuthor(author);
+        comment.setPost(post);
+        post.setComments(Set.of(comment));
+
+        loads = new AtomicInteger();
+    }
+
+    private Supplier<Optional<PostSnapshot>> loader() {
+        return () -> {
+            loads.incrementAndGet();
+            return Optional.of(PostSnapshot.of(post));
+        };
+    }
+
+    @Test
+    void get_ShouldLoadOnceAndReturnIndependentCopies() {
+        // when
+        Post first = postCache.get(1L, loader()).orElseThrow();
+        first.setTitle("modified by caller");
+        first.getComments().clear();
+        Post second = postCache.get(1L, loader()).orElseThrow();
+
+        // then
+        assertThat(loads).hasValue(1);
+        assertThat(second.getTitle()).isEqualTo("Cached Post");
+        assertThat(second.getComments()).singleElement()
+                .satisfies(comment -> assertThat(comment.getPost()).isSameAs(second));
+        assertThat(second.getTags()).extracting(Tag::getName).containsExactly("Java");
+
+        PostCacheStats stats = postCache.stats();
+        assertThat(stats.getHitCount()).isEqualTo(1);
+        assertThat(stats.getMissCount()).isEqualTo(1);
+        assertThat(stats.getSecondTierMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    void get_ShouldFallBackToSecondTierBeforeLoading() {
+        // given：另一個副本已經放入第二層
+        secondTier.put(PostSnapshot.of(post));
+
+        // when
+        Optional<Post> result = postCache.get(1L, loader());
+
+        // then
+        assertThat(result).isPresent();
+        assertThat(loads).hasValue(0);
+        assertThat(postCache.stats().getSecondTierHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void get_ShouldNotCacheMissingPost() {
+        // when
+        postCache.get(2L, Optional::empty);
+        postCache.get(2L, Optional::empty);
+
+        // then
+        assertThat(postCache.stats().getSize()).isZero();
+        assertThat(secondTier.get(2L)).isEmpty();
+    }
+
+    @Test
+    void changeEvents_ShouldEvictBothTiers() {
+        // given
+        postCache.get(1L, loader());
+
+        // when
+        postCache.onPostChanged(PostChangedEvent.saved(post));
+        postCache.get(1L, loader());
+        postCache.onCommentChanged(CommentChangedEvent.deleted(1L, 1L));
+
+        // then
+        assertThat(loads).hasValue(2);
+        assertThat(secondTier.get(1L)).isEmpty();
+    }
+
+    @Test
+    void get_ShouldKeepPublishAtOfScheduledDraft() {
+        // given
+        LocalDateTime publishAt = LocalDateTime.of(2030, 1, 1, 9, 0);
+        post.setPublishAt(publishAt);
+        postCache.get(1L, loader());
+
+        // when：第二次由快取的快照還原
+        Post cached = postCache.get(1L, loader()).orElseThrow();
+
+        // then
+        assertThat(loads).hasValue(1);
+        assertThat(cached.isPublished()).isFalse();
+        assertThat(cached.getPublishAt()).isEqualTo(publishAt);
+    }
+
+    @Test
+    void get_ShouldKeepScheduleThroughEditRoundTrip() throws Exception {
+        // given
+        LocalDateTime publishAt = LocalDateTime.of(2030, 1, 1, 9, 0);
+        post.setPublishAt(publishAt);
+        postCache.get(1L, loader());
+        ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+
+        // when：編輯頁讀取 GET 的回應後原樣送回 PUT
+        String response = objectMapper.writeValueAsString(postCache.get(1L, loader()).orElseThrow());
+        PostDto request = objectMapper.readValue(response, PostDto.class);
+
+        // then
+        assertThat(request.isPublished()).isFalse();
+        assertThat(request.getPublishAt()).isEqualTo(publishAt);
+    }
+}
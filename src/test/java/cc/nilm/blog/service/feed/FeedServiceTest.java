@@ -0,0 +1,117 @@
+package cc.nilm.blog.service.feed;
+
+import cc.nilm.blog.entity.Post;
+import cc.nilm.blog.event.PostChangedEvent;
+import cc.nilm.blog.repository.CategoryRepository;
+import cc.nilm.blog.repository.PostRepository;
+import cc.nilm.blog.repository.TagRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FeedServiceTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private TagRepository tagRepository;
+
+    private FeedService feedService;
+    private final LocalDateTime now = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    @BeforeEach
+    void setup() {
+        feedService = new FeedService(postRepository, categoryRepository, tagRepository,
+                "https://blog.example.com", "Blog", 2, Duration.ofMinutes(10));
+    }
+
+    private FeedEntry entry(long id, LocalDateTime createdAt) {
+        return new FeedEntry(id, "Post <" + id + ">", "summary & more", "Writer", createdAt, null);
+    }
+
+    private static Post post(long id, boolean published, LocalDateTime createdAt) {
+        Post post = new Post();
+        post.setId(id);
+        post.setPublished(published);
+        post.setCreatedAt(createdAt);
+        return post;
+    }
+
+    @Test
+    void siteFeed_ShouldRenderEscapedAtomOnceAndReuseBytes() {
+        // given
+        when(postRepository.findFeedEntries(any())).thenReturn(List.of(entry(2L, now), entry(1L, now.minusDays(1))));
+
+        // when
+        RenderedFeed first = feedService.siteFeed(FeedFormat.ATOM);
+        RenderedFeed second = feedService.siteFeed(FeedFormat.ATOM);
+
+        // then
+        String xml = new String(first.body(), StandardCharsets.UTF_8);
+        assertThat(xml).contains("<title>Post &lt;2&gt;</title>")
+                .contains("<link href=\"https://blog.example.com/post/2\"/>")
+                .contains("<summary>summary &amp; more</summary>")
+                .contains("<link rel=\"self\" href=\"https://blog.example.com/feed.xml\"/>");
+        assertThat(second).isSameAs(first);
+        assertThat(first.etag()).startsWith("\"").endsWith("\"");
+        verify(postRepository, times(1)).findFeedEntries(any());
+    }
+
+    @Test
+    void categoryFeed_ShouldBeEmptyForUnknownCategoryAndRenderRss() {
+        // given
+        when(categoryRepository.findNameById(9L)).thenReturn(Optional.empty());
+        when(categoryRepository.findNameById(1L)).thenReturn(Optional.of("Java"));
+        when(postRepository.findFeedEntriesByCategoryId(eq(1L), any())).thenReturn(List.of(entry(3L, now)));
+
+        // when
+        Optional<RenderedFeed> missing = feedService.categoryFeed(9L, FeedFormat.RSS);
+        RenderedFeed rss = feedService.categoryFeed(1L, FeedFormat.RSS).orElseThrow();
+
+        // then
+        assertThat(missing).isEmpty();
+        assertThat(rss.contentType()).startsWith("application/rss+xml");
+        assertThat(new String(rss.body(), StandardCharsets.UTF_8))
+                .contains("<title>Blog - Java</title>")
+                .contains("<guid isPermaLink=\"true\">https://blog.example.com/post/3</guid>");
+    }
+
+    @Test
+    void onPostChanged_ShouldEvictOnlyFeedsTheChangeCanAffect() {
+        // given：全站訂閱已滿 2 篇，最舊一篇是昨天
+        when(postRepository.findFeedEntries(any())).thenReturn(List.of(entry(2L, now), entry(1L, now.minusDays(1))));
+        feedService.siteFeed(FeedFormat.ATOM);
+
+        // when：草稿、較舊文章的修改都不影響；訂閱中的文章被刪除才重新產生
+        feedService.onPostChanged(PostChangedEvent.saved(post(5L, false, now)));
+        feedService.onPostChanged(PostChangedEvent.saved(post(6L, true, now.minusDays(7))));
+        feedService.siteFeed(FeedFormat.ATOM);
+        feedService.onPostChanged(PostChangedEvent.deleted(1L));
+        feedService.siteFeed(FeedFormat.ATOM);
+        feedService.onPostChanged(PostChangedEvent.saved(post(7L, true, now.plusHours(1))));
+        feedService.siteFeed(FeedFormat.ATOM);
+
+        // then
+        verify(postRepository, times(3)).findFeedEntries(any());
+    }
+}
@@ -0,0 +1,96 @@
+package cc.nilm.blog.service.imports;
+
+import cc.nilm.blog.config.JacksonConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PostArchiveReaderTest {
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+
+    @Test
+    void jsonLines_ShouldReadOnePostPerLineAndReportInvalidLines() throws IOException {
+        // given
+        String jsonl = """
+                {"title":"第一篇","content":"# Hello","published":true,"createdAt":"2020-01-02T03:04:05","author":"alice","category":"Java","tags":["Spring","JPA"],"comments":[{"author":"bob","content":"好文"}]}
+
+                not json
+                {"title":"第二篇","content":"內容"}
+                """;
+
+        // when
+        try (PostArchiveReader reader = PostArchiveReader.open(stream(jsonl.getBytes(StandardCharsets.UTF_8)), ImportFormat.JSONL, objectMapper)) {
+            ImportedPost first = reader.next();
+            assertThatThrownBy(reader::next).isInstanceOf(PostArchiveReader.InvalidRecordException.class);
+            ImportedPost second = reader.next();
+
+            // then
+            assertThat(first.title()).isEqualTo("第一篇");
+            assertThat(first.createdAt()).isEqualTo(LocalDateTime.of(2020, 1, 2, 3, 4, 5));
+            assertThat(first.tags()).containsExactly("Spring", "JPA");
+            assertThat(first.comments()).extracting(ImportedPost.ImportedComment::author).containsExactly("bob");
+            assertThat(second.title()).isEqualTo("第二篇");
+            assertThat(second.tags()).isEmpty();
+            assertThat(second.author()).isNull();
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    void markdownZip_ShouldParseFrontMatterAndSkipOtherFiles() throws IOException {
+        // given
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes, StandardCharsets.UTF_8)) {
+            zip.putNextEntry(new ZipEntry("posts/hello-world.md"));
+            zip.write("""
+                    ---
+                    title: "Hello World"
+                    date: 2019-05-06
+                    published: false
+                    tags: [Java, 'Spring Boot']
+                    category: 筆記
+                    ---
+                    正文
+                    """.getBytes(StandardCharsets.UTF_8));
+            zip.putNextEntry(new ZipEntry("images/cover.png"));
+            zip.write(new byte[]{1, 2, 3});
+            zip.putNextEntry(new ZipEntry("untitled.md"));
+            zip.write("沒有 front matter".getBytes(StandardCharsets.UTF_8));
+        }
+
+        // when
+        List<ImportedPost> posts = new ArrayList<>();
+        try (PostArchiveReader reader = PostArchiveReader.open(stream(bytes.toByteArray()), ImportFormat.MARKDOWN_ZIP, objectMapper)) {
+            for (ImportedPost post = reader.next(); post != null; post = reader.next()) posts.add(post);
+        }
+
+        // then
+        assertThat(posts).hasSize(2);
+        ImportedPost hello = posts.get(0);
+        assertThat(hello.title()).isEqualTo("Hello World");
+        assertThat(hello.content()).isEqualTo("正文\n");
+        assertThat(hello.published()).isFalse();
+        assertThat(hello.createdAt()).isEqualTo(LocalDateTime.of(2019, 5, 6, 0, 0));
+        assertThat(hello.tags()).containsExactly("Java", "Spring Boot");
+        assertThat(hello.category()).isEqualTo("筆記");
+        assertThat(posts.get(1).title()).isEqualTo("untitled");
+        assertThat(posts.get(1).published()).isTrue();
+    }
+
+    private static ByteArrayInputStream stream(byte[] bytes) {
+        return new ByteArrayInputStream(bytes);
+    }
+}
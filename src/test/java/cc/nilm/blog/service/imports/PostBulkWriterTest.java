@@ -0,0 +1,108 @@
+package cc.nilm.blog.service.imports;
+
+import cc.nilm.blog.entity.Category;
+import cc.nilm.blog.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(PostBulkWriter.class)
+class PostBulkWriterTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PostBulkWriter bulkWriter;
+
+    private User admin;
+    private User alice;
+
+    @BeforeEach
+    void setup() {
+        admin = user("admin");
+        alice = user("alice");
+
+        Category java = new Category();
+        java.setName("Java");
+        entityManager.persist(java);
+        entityManager.flush();
+    }
+
+    @Test
+    void write_ShouldResolveNamesInBulkAndFallBackToJdbcBatchOnH2() {
+        // given
+        LocalDateTime createdAt = LocalDateTime.of(2020, 1, 1, 12, 0);
+        List<ImportedPost> posts = List.of(
+                new ImportedPost("第一篇", "內容一", true, createdAt, "alice", "Java", List.of("Spring", "JPA", "Spring"),
+                        List.of(new ImportedPost.ImportedComment("admin", "留言", createdAt.plusDays(1)),
+                                new ImportedPost.ImportedComment("ghost", "未知作者的留言", null))),
+                new ImportedPost("第二篇", null, false, null, "nobody", "新分類", List.of("Spring"), List.of()),
+                new ImportedPost(" ", "沒有標題", true, null, null, null, List.of(), List.of()));
+
+        // when
+        PostBulkWriter.BatchResult result = bulkWriter.write(posts, admin.getId());
+
+        // then
+        assertThat(result.usedCopy()).isFalse();
+        assertThat(result.posts()).isEqualTo(2);
+        assertThat(result.skipped()).isEqualTo(1);
+        assertThat(result.comments()).isEqualTo(2);
+        assertThat(result.categoriesCreated()).isEqualTo(1);
+        assertThat(result.tagsCreated()).isEqualTo(2);
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT p.title, p.content, p.published, p.created_at, u.username, c.name AS category " +
+                "FROM posts p JOIN users u ON u.id = p.user_id LEFT JOIN categories c ON c.id = p.category_id ORDER BY p.id");
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0)).containsEntry("TITLE", "第一篇").containsEntry("USERNAME", "alice").containsEntry("CATEGORY", "Java");
+        assertThat(rows.get(1)).containsEntry("CONTENT", "").containsEntry("USERNAME", "admin").containsEntry("CATEGORY", "新分類");
+
+        assertThat(jdbcTemplate.queryForList("SELECT t.name FROM post_tags pt JOIN tags t ON t.id = pt.tag_id " +
+                "JOIN posts p ON p.id = pt.post_id WHERE p.title = '第一篇' ORDER BY t.name", String.class))
+                .containsExactly("JPA", "Spring");
+        assertThat(jdbcTemplate.queryForList("SELECT u.username FROM comments c JOIN users u ON u.id = c.user_id ORDER BY c.id",
+                String.class)).containsExactly("admin", "admin");
+    }
+
+    @Test
+    void write_ShouldReuseExistingCategoriesAndTags() {
+        // given
+        bulkWriter.write(List.of(new ImportedPost("A", "a", true, null, null, "Java", List.of("Spring"), List.of())), admin.getId());
+
+        // when
+        PostBulkWriter.BatchResult result = bulkWriter.write(
+                List.of(new ImportedPost("B", "b", true, null, "alice", "Java", List.of("Spring"), List.of())), admin.getId());
+
+        // then
+        assertThat(result.categoriesCreated()).isZero();
+        assertThat(result.tagsCreated()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tags", Integer.class)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT user_id FROM posts WHERE title = 'B'", Long.class)).isEqualTo(alice.getId());
+    }
+
+    private User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("secret");
+        user.setFullName(username);
+        return entityManager.persist(user);
+    }
+}
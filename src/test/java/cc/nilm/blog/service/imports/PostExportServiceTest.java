@@ -0,0 +1,117 @@
+package cc.nilm.blog.service.imports;
+
+import cc.nilm.blog.config.JacksonConfig;
+import cc.nilm.blog.entity.Category;
+import cc.nilm.blog.entity.Comment;
+import cc.nilm.blog.entity.Post;
+import cc.nilm.blog.entity.Tag;
+import cc.nilm.blog.entity.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({PostExportService.class, JacksonConfig.class})
+class PostExportServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PostExportService postExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final LocalDateTime createdAt = LocalDateTime.of(2021, 3, 4, 5, 6, 7);
+
+    @BeforeEach
+    void setup() {
+        User author = new User();
+        author.setUsername("writer");
+        author.setEmail("writer@example.com");
+        author.setPassword("secret");
+        author.setFullName("Writer");
+        entityManager.persist(author);
+
+        Category category = new Category();
+        category.setName("Java");
+        entityManager.persist(category);
+
+        Tag tag = new Tag();
+        tag.setName("Spring");
+        entityManager.persist(tag);
+
+        // 超過一個 chunk，確認跨段時標籤與評論仍對應到正確的文章
+        for (int i = 0; i < PostExportService.CHUNK_SIZE + 5; i++) {
+            Post post = new Post();
+            post.setTitle("Post " + i);
+            post.setContent("content " + i);
+            post.setPublished(i % 2 == 0);
+            post.setAuthor(author);
+            post.setCategory(i == 0 ? category : null);
+            post.setTags(i == PostExportService.CHUNK_SIZE ? Set.of(tag) : Set.of());
+            post.setCreatedAt(createdAt);
+            entityManager.persist(post);
+
+            if (i == PostExportService.CHUNK_SIZE + 1) {
+                Comment comment = new Comment();
+                comment.setContent("nice");
+                comment.setAuthor(author);
+                comment.setPost(post);
+                comment.setCreatedAt(createdAt.plusHours(1));
+                entityManager.persist(comment);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void exportArchive_ShouldWriteEveryPostAsReimportableJsonLine() throws IOException {
+        // given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when
+        long count = postExportService.exportArchive(out);
+
+        // then
+        List<ImportedPost> posts = new ArrayList<>();
+        try (PostArchiveReader reader = PostArchiveReader.open(new ByteArrayInputStream(out.toByteArray()), ImportFormat.JSONL, objectMapper)) {
+            for (ImportedPost post = reader.next(); post != null; post = reader.next()) posts.add(post);
+        }
+        assertThat(count).isEqualTo(PostExportService.CHUNK_SIZE + 5);
+        assertThat(posts).hasSize(PostExportService.CHUNK_SIZE + 5);
+
+        ImportedPost first = posts.get(0);
+        assertThat(first.title()).isEqualTo("Post 0");
+        assertThat(first.content()).isEqualTo("content 0");
+        assertThat(first.published()).isTrue();
+        assertThat(first.createdAt()).isEqualTo(createdAt);
+        assertThat(first.author()).isEqualTo("writer");
+        assertThat(first.category()).isEqualTo("Java");
+        assertThat(posts.get(1).published()).isFalse();
+        assertThat(posts.get(1).category()).isNull();
+
+        assertThat(posts.get(PostExportService.CHUNK_SIZE).tags()).containsExactly("Spring");
+        assertThat(posts.get(PostExportService.CHUNK_SIZE + 1).comments())
+                .containsExactly(new ImportedPost.ImportedComment("writer", "nice", createdAt.plusHours(1)));
+        assertThat(posts.get(PostExportService.CHUNK_SIZE + 2).comments()).isEmpty();
+    }
+}
@@ -0,0 +1,51 @@
+package cc.nilm.blog.service.markdown;
+
+import cc.nilm.blog.entity.TocEntry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class MarkdownRendererTest {
+
+    private final MarkdownRenderer renderer = new MarkdownRenderer();
+
+    @Test
+    void render_ShouldProduceHtmlTocAndExcerpt() {
+        // given
+        String markdown = "# 安裝步驟\n\n先下載 **JDK 17**。\n\n## Configuration\n\n| a | b |\n|---|---|\n| 1 | ~~2~~ |\n";
+
+        // when
+        RenderedContent result = renderer.render(markdown);
+
+        // then
+        assertThat(result.html()).contains("<strong>JDK 17</strong>", "<table>", "<del>2</del>");
+        assertThat(result.toc()).extracting(TocEntry::getLevel, TocEntry::getText)
+                .containsExactly(tuple(1, "安裝步驟"),
+                        tuple(2, "Configuration"));
+        assertThat(result.toc().get(1).getId()).isEqualTo("configuration");
+        assertThat(result.html()).contains("id=\"configuration\"");
+        assertThat(result.excerpt()).startsWith("安裝步驟 先下載 JDK 17").doesNotContain("#", "*");
+        assertThat(result.readingTimeMinutes()).isEqualTo(1);
+    }
+
+    @Test
+    void render_ShouldStripScriptsAndUnsafeLinks() {
+        // given
+        String markdown = "<script>alert(1)</script>\n\n[x](javascript:alert(1)) <img src=\"/api/files/download/a.png\" onerror=\"alert(1)\">";
+
+        // when
+        String html = renderer.render(markdown).html();
+
+        // then
+        assertThat(html).doesNotContain("<script", "javascript:", "onerror");
+        assertThat(html).contains("src=\"/api/files/download/a.png\"");
+    }
+
+    @Test
+    void readingTimeMinutes_ShouldCountChineseCharactersAndLatinWords() {
+        assertThat(MarkdownRenderer.readingTimeMinutes("字".repeat(800))).isEqualTo(2);
+        assertThat(MarkdownRenderer.readingTimeMinutes("word ".repeat(450))).isEqualTo(3);
+        assertThat(MarkdownRenderer.readingTimeMinutes("")).isEqualTo(1);
+    }
+}
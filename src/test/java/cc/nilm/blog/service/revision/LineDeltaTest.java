@@ -0,0 +1,38 @@
+package cc.nilm.blog.service.revision;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LineDeltaTest {
+
+    @Test
+    void diffAndApply_ShouldRoundTrip() {
+        String[][] cases = {
+                {"a\nb\nc", "a\nB\nc\nd"},
+                {"", "全新內容\n"},
+                {"第一行\n第二行\n", ""},
+                {"=0,1\n+1\n", "+2\n=3,4"},
+                {"same\n", "same\n"},
+        };
+        for (String[] pair : cases) {
+            String delta = LineDelta.diff(pair[0], pair[1]);
+            assertThat(LineDelta.apply(pair[0], delta)).isEqualTo(pair[1]);
+        }
+    }
+
+    @Test
+    void diff_SmallEditOnLongText_ShouldBeCompact() {
+        // given
+        StringBuilder base = new StringBuilder();
+        for (int i = 0; i < 2_000; i++) base.append("第 ").append(i).append(" 行的內容\n");
+        String edited = base.toString().replace("第 1000 行的內容", "第 1000 行改過了");
+
+        // when
+        String delta = LineDelta.diff(edited, base.toString());
+
+        // then
+        assertThat(delta.length()).isLessThan(50);
+        assertThat(LineDelta.apply(edited, delta)).isEqualTo(base.toString());
+    }
+}
@@ -0,0 +1,116 @@
+package cc.nilm.blog.service.revision;
+
+import cc.nilm.blog.dto.PostRevisionContent;
+import cc.nilm.blog.entity.Post;
+import cc.nilm.blog.entity.PostRevision;
+import cc.nilm.blog.repository.PostRevisionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PostRevisionServiceTest {
+
+    @Mock
+    private PostRevisionRepository revisionRepository;
+
+    @InjectMocks
+    private PostRevisionService revisionService;
+
+    // 以清單模擬資料表
+    private final List<PostRevision> rows = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        lenient().when(revisionRepository.findFirstByPostIdOrderByRevisionDesc(anyLong())).thenAnswer(invocation ->
+                rows.stream().max(Comparator.comparingInt(PostRevision::getRevision)));
+        lenient().when(revisionRepository.save(any(PostRevision.class))).thenAnswer(invocation -> {
+            rows.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        lenient().when(revisionRepository.findByPostIdAndRevisionBetweenOrderByRevisionAsc(anyLong(), anyInt(), anyInt()))
+                .thenAnswer(invocation -> {
+                    int from = invocation.getArgument(1);
+                    int to = invocation.getArgument(2);
+                    return rows.stream().filter(r -> r.getRevision() >= from && r.getRevision() <= to)
+                            .sorted(Comparator.comparingInt(PostRevision::getRevision)).toList();
+                });
+    }
+
+    @Test
+    void record_ShouldKeepLatestAndPeriodicSnapshotsInFull() {
+        // when：同一篇文章儲存 25 次，每次改一行
+        for (int i = 1; i <= 25; i++) {
+            revisionService.record(post("標題", content(i)));
+        }
+
+        // then
+        assertThat(rows).hasSize(25);
+        assertThat(rows).filteredOn(PostRevision::isSnapshot).extracting(PostRevision::getRevision)
+                .containsExactlyInAnyOrder(10, 20, 25);
+        assertThat(rows.get(24).getData()).isEqualTo(content(25));
+        assertThat(rows.get(3).getData().length()).isLessThan(content(4).length() / 10);
+    }
+
+    @Test
+    void reconstruct_ShouldRestoreEveryRevision() {
+        // given
+        for (int i = 1; i <= 25; i++) {
+            revisionService.record(post(i % 2 == 0 ? "偶數版" : "奇數版", content(i)));
+        }
+
+        // then
+        for (int i = 1; i <= 25; i++) {
+            Optional<PostRevisionContent> restored = revisionService.reconstruct(1L, i);
+            assertThat(restored).isPresent();
+            assertThat(restored.get().getContent()).isEqualTo(content(i));
+            assertThat(restored.get().getTitle()).isEqualTo(i % 2 == 0 ? "偶數版" : "奇數版");
+        }
+        assertThat(revisionService.reconstruct(1L, 26)).isEmpty();
+    }
+
+    @Test
+    void record_UnchangedTitleAndContent_ShouldNotCreateRevision() {
+        // given
+        revisionService.record(post("標題", content(1)));
+
+        // when
+        revisionService.record(post("標題", content(1)));
+        revisionService.record(post("新標題", content(1)));
+
+        // then
+        assertThat(rows).extracting(PostRevision::getRevision).containsExactly(1, 2);
+        verify(revisionRepository, times(2)).save(any(PostRevision.class));
+    }
+
+    private static Post post(String title, String content) {
+        Post post = new Post();
+        post.setId(1L);
+        post.setTitle(title);
+        post.setContent(content);
+        post.setContentHash(Integer.toHexString(content.hashCode()));
+        return post;
+    }
+
+    private static String content(int version) {
+        StringBuilder text = new StringBuilder();
+        for (int line = 0; line < 200; line++) {
+            text.append(line == version ? "這一行在第 " + version + " 版修改過" : "原本的第 " + line + " 行").append('\n');
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,184 @@
+package cc.nilm.blog.service.search;
+
+import cc.nilm.blog.dto.PostSearchHit;
+import cc.nilm.blog.dto.PostText;
+import cc.nilm.blog.entity.Post;
+import cc.nilm.blog.event.PostChangedEvent;
+import cc.nilm.blog.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NgramPostSearchEngineTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @InjectMocks
+    private NgramPostSearchEngine searchEngine;
+
+    @BeforeEach
+    void setup() {
+        searchEngine.index(1L, "全文搜尋實作", "使用倒排索引加速查詢", LocalDateTime.now().minusDays(3));
+        searchEngine.index(2L, "旅遊筆記", "這次的行程順便研究了搜尋引擎的排名", LocalDateTime.now().minusDays(2));
+        searchEngine.index(3L, "Spring Boot 入門", "介紹 Spring 的自動設定", LocalDateTime.now().minusDays(1));
+    }
+
+    @Test
+    void search_ShouldMatchChineseBigramsAndRankTitleFirst() {
+        // when
+        Page<PostSearchHit> result = searchEngine.search("搜尋", PageRequest.of(0, 10));
+
+        // then
+        assertThat(result.getContent()).extracting(PostSearchHit::getPostId).containsExactly(1L, 2L);
+        assertThat(result.getContent().get(1).getSnippet()).contains("<mark>搜尋</mark>");
+    }
+
+    @Test
+    void search_ShouldRequireEveryTerm() {
+        // when：「搜尋」兩篇都有，「排名」只有第 2 篇
+        Page<PostSearchHit> result = searchEngine.search("搜尋 排名", PageRequest.of(0, 10));
+
+        // then
+        assertThat(result.getContent()).extracting(PostSearchHit::getPostId).containsExactly(2L);
+    }
+
+    @Test
+    void search_ShouldMatchSingleCharacterAndLatinWordsCaseInsensitively() {
+        assertThat(searchEngine.search("筆", PageRequest.of(0, 10)).getContent())
+                .extracting(PostSearchHit::getPostId).containsExactly(2L);
+        assertThat(searchEngine.search("ＳＰＲＩＮＧ", PageRequest.of(0, 10)).getContent())
+                .extracting(PostSearchHit::getPostId).containsExactly(3L);
+    }
+
+    @Test
+    void search_ShouldEscapeContentAndKeepOnlyMarkTags() {
+        // given
+        searchEngine.index(4L, "泛型筆記", "宣告 List<String> 的泛型參數與 <script>alert(1)</script>", LocalDateTime.now());
+
+        // when
+        String snippet = searchEngine.search("泛型", PageRequest.of(0, 10)).getContent().get(0).getSnippet();
+
+        // then
+        assertThat(snippet).contains("List&lt;String&gt;", "<mark>泛型</mark>", "&lt;script&gt;")
+                .doesNotContain("<script>");
+    }
+
+    @Test
+    void search_UnknownTerm_ShouldReturnEmptyPage() {
+        assertThat(searchEngine.search("資料庫", PageRequest.of(0, 10)).getContent()).isEmpty();
+    }
+
+    @Test
+    void onPostChanged_ShouldReindexUpdatedAndDropUnpublishedPosts() {
+        // given
+        Post updated = new Post();
+        updated.setId(1L);
+        updated.setTitle("改寫後的標題");
+        updated.setContent("已經不談那個主題");
+        updated.setPublished(true);
+        Post unpublished = new Post();
+        unpublished.setId(3L);
+        unpublished.setTitle("Spring Boot 入門");
+        unpublished.setContent("草稿");
+        unpublished.setPublished(false);
+
+        // when
+        searchEngine.onPostChanged(PostChangedEvent.saved(updated));
+        searchEngine.onPostChanged(PostChangedEvent.saved(unpublished));
+        searchEngine.onPostChanged(PostChangedEvent.deleted(2L));
+
+        // then
+        assertThat(searchEngine.search("搜尋", PageRequest.of(0, 10)).getContent()).isEmpty();
+        assertThat(searchEngine.search("spring", PageRequest.of(0, 10)).getContent()).isEmpty();
+        assertThat(searchEngine.search("改寫", PageRequest.of(0, 10)).getContent())
+                .extracting(PostSearchHit::getPostId).containsExactly(1L);
+        assertThat(searchEngine.size()).isEqualTo(1);
+    }
+
+    @Test
+    void search_ShouldScoreAsFreshIndexWhileDeletedDocsAwaitCompaction() {
+        // given：第 2 篇反覆編輯留下已刪除的舊版本，數量未達重建門檻
+        for (int i = 0; i < 10; i++) {
+            searchEngine.index(2L, "旅遊筆記", "這次的行程順便研究了搜尋引擎的排名", LocalDateTime.now().minusDays(2));
+        }
+        NgramPostSearchEngine fresh = new NgramPostSearchEngine(postRepository);
+        fresh.index(1L, "全文搜尋實作", "使用倒排索引加速查詢", LocalDateTime.now().minusDays(3));
+        fresh.index(2L, "旅遊筆記", "這次的行程順便研究了搜尋引擎的排名", LocalDateTime.now().minusDays(2));
+        fresh.index(3L, "Spring Boot 入門", "介紹 Spring 的自動設定", LocalDateTime.now().minusDays(1));
+
+        // when
+        Page<PostSearchHit> edited = searchEngine.search("搜尋", PageRequest.of(0, 10));
+        Page<PostSearchHit> expected = fresh.search("搜尋", PageRequest.of(0, 10));
+
+        // then：文件頻率不含已刪除的版本，IDF 與重建後的索引相同
+        assertThat(edited.getContent()).extracting(PostSearchHit::getScore)
+                .containsExactlyElementsOf(expected.getContent().stream().map(PostSearchHit::getScore).toList());
+        assertThat(edited.getContent().get(1).getScore()).isPositive();
+    }
+
+    @Test
+    void search_TermOnlyInDeletedDocs_ShouldReturnEmptyPage() {
+        // when
+        searchEngine.remove(2L);
+
+        // then
+        assertThat(searchEngine.search("旅遊", PageRequest.of(0, 10)).getContent()).isEmpty();
+    }
+
+    @Test
+    void rebuild_ShouldLoadPublishedPostsInBatches() {
+        // given
+        PostText text = mock(PostText.class);
+        when(text.getId()).thenReturn(10L);
+        when(text.getTitle()).thenReturn("資料庫調校");
+        when(text.getContent()).thenReturn("索引與查詢計畫");
+        when(postRepository.findByPublishedTrueAndIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class)))
+                .thenReturn(Collections.singletonList(text));
+
+        // when
+        searchEngine.rebuild();
+
+        // then
+        assertThat(searchEngine.size()).isEqualTo(1);
+        assertThat(searchEngine.search("資料庫", PageRequest.of(0, 10)).getContent())
+                .extracting(PostSearchHit::getPostId).containsExactly(10L);
+    }
+
+    @Test
+    void search_ShouldStayFastOnLargeCorpus() {
+        // given：兩萬篇各約 300 字的文章
+        String filler = "部落格文章內容包含程式碼與生活紀錄，".repeat(15);
+        for (long id = 100; id < 20_100; id++) {
+            searchEngine.index(id, "第" + id + "篇", filler + (id % 100 == 0 ? "效能調校" : ""), LocalDateTime.now());
+        }
+
+        // when：先熱身讓 JIT 編譯，再取多次查詢中最快的一次
+        Page<PostSearchHit> result = null;
+        long bestMicros = Long.MAX_VALUE;
+        for (int i = 0; i < 200; i++) {
+            long start = System.nanoTime();
+            result = searchEngine.search("效能調校", PageRequest.of(0, 10));
+            bestMicros = Math.min(bestMicros, (System.nanoTime() - start) / 1_000);
+        }
+
+        // then：門檻放寬以容忍 CI 機器與覆蓋率工具的額外負擔
+        assertThat(result.getTotalElements()).isEqualTo(200);
+        assertThat(bestMicros).isLessThan(5_000);
+    }
+}
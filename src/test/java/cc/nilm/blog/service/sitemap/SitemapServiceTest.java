@@ -0,0 +1,149 @@
+package cc.nilm.blog.service.sitemap;
+
+import cc.nilm.blog.event.PostChangedEvent;
+import cc.nilm.blog.event.PostsImportedEvent;
+import cc.nilm.blog.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SitemapServiceTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    private MutableClock clock;
+    private SitemapService sitemapService;
+    private final LocalDateTime createdAt = LocalDateTime.of(2025, 5, 1, 8, 0);
+
+    @BeforeEach
+    void setup() {
+        clock = new MutableClock(Instant.parse("2025-06-01T12:00:00Z"));
+        sitemapService = new SitemapService(postRepository, new InMemorySitemapStore(), "https://blog.example.com/",
+                Duration.ofHours(1), clock);
+        lenient().when(postRepository.findMaxPublishedId()).thenReturn(2L * SitemapService.SHARD_SIZE + 7);
+        lenient().when(postRepository.findSitemapEntries(anyLong(), anyLong())).thenReturn(List.of());
+    }
+
+    private static Object[] entry(long id, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        return new Object[]{id, createdAt, updatedAt};
+    }
+
+    private static String text(StoredSitemap sitemap) {
+        return new String(sitemap.xml(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void shard_ShouldListPostsOfIdRangeWithLastmod() {
+        // given
+        List<Object[]> entries = new ArrayList<>();
+        entries.add(entry(1L, createdAt, null));
+        entries.add(entry(2L, createdAt, createdAt.plusDays(3)));
+        when(postRepository.findSitemapEntries(0L, SitemapService.SHARD_SIZE)).thenReturn(entries);
+
+        // when
+        StoredSitemap shard = sitemapService.shard(0).orElseThrow();
+
+        // then
+        assertThat(text(shard))
+                .contains("<url><loc>https://blog.example.com/post/1</loc><lastmod>2025-05-01</lastmod></url>")
+                .contains("<url><loc>https://blog.example.com/post/2</loc><lastmod>2025-05-04</lastmod></url>");
+        assertThat(sitemapService.shard(3)).isEmpty();
+        assertThat(sitemapService.shard(-1)).isEmpty();
+    }
+
+    @Test
+    void index_ShouldListEveryShardUpToHighestPublishedId() {
+        // when
+        StoredSitemap index = sitemapService.index();
+
+        // then
+        assertThat(text(index))
+                .contains("<loc>https://blog.example.com/sitemaps/0.xml</loc><lastmod>2025-06-01T12:00Z</lastmod>")
+                .contains("<loc>https://blog.example.com/sitemaps/2.xml</loc>")
+                .doesNotContain("sitemaps/3.xml");
+    }
+
+    @Test
+    void shard_ShouldRegenerateOnlyChangedShardAndKeepLastModifiedWhenUnchanged() {
+        // given
+        sitemapService.index();
+        clock.advance(Duration.ofMinutes(5));
+
+        // when：第 1 片的文章異動，但查回的內容相同
+        sitemapService.onPostChanged(PostChangedEvent.deleted(SitemapService.SHARD_SIZE + 3L));
+        StoredSitemap first = sitemapService.shard(0).orElseThrow();
+        StoredSitemap second = sitemapService.shard(1).orElseThrow();
+
+        // then
+        verify(postRepository, times(1)).findSitemapEntries(0L, SitemapService.SHARD_SIZE);
+        verify(postRepository, times(2)).findSitemapEntries(SitemapService.SHARD_SIZE, 2L * SitemapService.SHARD_SIZE);
+        assertThat(first.lastModified()).isEqualTo(Instant.parse("2025-06-01T12:00:00Z"));
+        assertThat(second.lastModified()).isEqualTo(Instant.parse("2025-06-01T12:00:00Z"));
+        assertThat(second.generatedAt()).isEqualTo(Instant.parse("2025-06-01T12:05:00Z"));
+    }
+
+    @Test
+    void shard_ShouldRegenerateAfterMaxAgeOrImport() {
+        // given
+        sitemapService.shard(0);
+
+        // when
+        clock.advance(Duration.ofMinutes(30));
+        sitemapService.shard(0);
+        clock.advance(Duration.ofMinutes(31));
+        sitemapService.shard(0);
+        sitemapService.onPostsImported(new PostsImportedEvent(10));
+        sitemapService.shard(0);
+
+        // then
+        verify(postRepository, times(3)).findSitemapEntries(0L, SitemapService.SHARD_SIZE);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -1,5 +1,5 @@
 import axios from './axios.config'
-import type { Post, PageResponse } from '@/types'
+import type { Post, PostSummary, AutosaveRequest, AutosaveResult, PostRevisionSummary, PostRevisionContent, PageResponse, CursorPage, ArchiveMonth } from '@/types'
 
 const API_URL = '/posts'
 
@@ -9,6 +9,7 @@ interface PostData {
   categoryId: number;
   tagIds: number[];
   published: boolean;
+  publishAt?: string | null;
 }
 
 class PostService {
@@ -17,13 +18,52 @@ class PostService {
     size: number = 10,
     sortBy: string = 'createdAt',
     direction: string = 'desc'
-  ): Promise<PageResponse<Post>> {
+  ): Promise<PageResponse<PostSummary>> {
     const response = await axios.get(API_URL, {
       params: { page, size, sortBy, direction }
     })
     return response.data
   }
 
+  // 無限捲動用：after 帶上一頁的 nextCursor，空字串代表第一頁
+  async getPostFeed(after: string = '', size: number = 10): Promise<CursorPage<PostSummary>> {
+    const response = await axios.get(API_URL, {
+      params: { after, size }
+    })
+    return response.data
+  }
+
+  async getTrendingPosts(size: number = 10): Promise<PostSummary[]> {
+    const response = await axios.get(`${API_URL}/trending`, {
+      params: { size }
+    })
+    return response.data
+  }
+
+  async getRelatedPosts(id: number, size: number = 5): Promise<PostSummary[]> {
+    const response = await axios.get(`${API_URL}/${id}/related`, {
+      params: { size }
+    })
+    return response.data
+  }
+
+  async getArchive(): Promise<ArchiveMonth[]> {
+    const response = await axios.get(`${API_URL}/archive`)
+    return response.data
+  }
+
+  async getArchivedPosts(
+    year: number,
+    month: number,
+    page: number = 0,
+    size: number = 10
+  ): Promise<PageResponse<PostSummary>> {
+    const response = await axios.get(`${API_URL}/archive/${year}/${month}`, {
+      params: { page, size }
+    })
+    return response.data
+  }
+
   async getAllPostsForAdmin(
     page: number = 0,
     size: number = 10,
@@ -64,11 +104,26 @@ class PostService {
     return response.data
   }
 
+  async autosaveDraft(id: number | string, changes: AutosaveRequest): Promise<AutosaveResult> {
+    const response = await axios.patch(`${API_URL}/${id}/autosave`, changes)
+    return response.data
+  }
+
+  async getPostRevisions(id: number | string): Promise<PostRevisionSummary[]> {
+    const response = await axios.get(`${API_URL}/${id}/revisions`)
+    return response.data
+  }
+
+  async getPostRevision(id: number | string, revision: number): Promise<PostRevisionContent> {
+    const response = await axios.get(`${API_URL}/${id}/revisions/${revision}`)
+    return response.data
+  }
+
   async getPostsByCategory(
     categoryId: number, 
     page: number = 0, 
     size: number = 10
-  ): Promise<PageResponse<Post>> {
+  ): Promise<PageResponse<PostSummary>> {
     const response = await axios.get(`/api/posts/category/${categoryId}`, {
       params: { page, size }
     })
@@ -79,7 +134,7 @@ class PostService {
     tagId: number, 
     page: number = 0, 
     size: number = 10
-  ): Promise<PageResponse<Post>> {
+  ): Promise<PageResponse<PostSummary>> {
     const response = await axios.get(`/api/posts/tag/${tagId}`, {
       params: { page, size }
     })
@@ -90,7 +145,7 @@ class PostService {
     query: string, 
     page: number = 0, 
     size: number = 10
-  ): Promise<PageResponse<Post>> {
+  ): Promise<PageResponse<PostSummary>> {
     const response = await axios.get(`/api/posts/search`, {
       params: { query, page, size }
     })
@@ -101,7 +156,7 @@ class PostService {
     userId: number, 
     page: number = 0, 
     size: number = 10
-  ): Promise<PageResponse<Post>> {
+  ): Promise<PageResponse<PostSummary>> {
     const response = await axios.get(`/api/posts/user/${userId}`, {
       params: { page, size }
     })
@@ -1,5 +1,5 @@
 import axios from './axios.config'
-import { Tag } from '../types'
+import { Tag, TagCloudEntry } from '../types'
 import { TagServiceInterface, CreateTagRequest } from '../types/services'
 
 const API_URL = '/tags'
@@ -10,6 +10,11 @@ class TagService implements TagServiceInterface {
     return response.data
   }
 
+  async getTagCloud(): Promise<TagCloudEntry[]> {
+    const response = await axios.get(`${API_URL}/cloud`)
+    return response.data
+  }
+
   async getTag(id: number): Promise<Tag> {
     const response = await axios.get(`${API_URL}/${id}`)
     return response.data
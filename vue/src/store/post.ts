@@ -1,7 +1,7 @@
 import { defineStore } from 'pinia'
 import { ref, computed } from 'vue'
 import PostService from '../services/post.service'
-import type { Post, PageResponse } from '../types'
+import type { Post, PostSummary, PageResponse } from '../types'
 
 interface PostData {
   title: string;
@@ -12,7 +12,7 @@ interface PostData {
 }
 
 export const usePostStore = defineStore('post', () => {
-  const posts = ref<Post[]>([])
+  const posts = ref<(Post | PostSummary)[]>([])
   const currentPost = ref<Post | null>(null)
   const loading = ref<boolean>(false)
   const error = ref<string | null>(null)
@@ -27,7 +27,7 @@ export const usePostStore = defineStore('post', () => {
     size: number = 10, 
     sortBy: string = 'createdAt', 
     direction: string = 'desc'
-  ): Promise<PageResponse<Post>> {
+  ): Promise<PageResponse<PostSummary>> {
     loading.value = true
     error.value = null
     
@@ -163,7 +163,7 @@ export const usePostStore = defineStore('post', () => {
     categoryId: number, 
     page: number = 0, 
     size: number = 10
-  ): Promise<PageResponse<Post>> {
+  ): Promise<PageResponse<PostSummary>> {
     loading.value = true
     error.value = null
     
@@ -187,7 +187,7 @@ export const usePostStore = defineStore('post', () => {
     tagId: number, 
     page: number = 0, 
     size: number = 10
-  ): Promise<PageResponse<Post>> {
+  ): Promise<PageResponse<PostSummary>> {
     loading.value = true
     error.value = null
     
@@ -211,7 +211,7 @@ export const usePostStore = defineStore('post', () => {
     query: string, 
     page: number = 0, 
     size: number = 10
-  ): Promise<PageResponse<Post>> {
+  ): Promise<PageResponse<PostSummary>> {
     loading.value = true
     error.value = null
     
@@ -235,7 +235,7 @@ export const usePostStore = defineStore('post', () => {
     userId: number, 
     page: number = 0, 
     size: number = 10
-  ): Promise<PageResponse<Post>> {
+  ): Promise<PageResponse<PostSummary>> {
     loading.value = true
     error.value = null
     
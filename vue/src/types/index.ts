@@ -18,6 +18,8 @@ export interface Category {
   id: number;
   name: string;
   description?: string;
+  // 分類列表才有：已發布文章數
+  postCount?: number;
   createdAt?: string;
   updatedAt?: string;
 }
@@ -31,6 +33,14 @@ export interface Tag {
   updatedAt?: string;
 }
 
+// 標籤雲項目：標籤與已發布文章數
+export interface TagCloudEntry {
+  id: number;
+  name: string;
+  color?: string;
+  postCount: number;
+}
+
 // 作者接口(簡化的用戶接口)
 export interface Author {
   id: number;
@@ -48,22 +58,79 @@ export interface Comment {
   updatedAt?: string;
 }
 
+// 文章目錄項目
+export interface TocEntry {
+  level: number;
+  id: string;
+  text: string;
+}
+
 // 文章接口
 export interface Post {
   id: number;
   title: string;
   content: string;
+  contentHtml?: string;
+  toc?: TocEntry[];
+  readingTimeMinutes?: number;
+  excerpt?: string;
   author: Author;
   category?: Category;
   tags?: Tag[];
   comments?: Comment[];
   featuredImage?: string;
   published: boolean;
+  publishAt?: string | null;
   viewCount?: number;
   createdAt?: string;
   updatedAt?: string;
 }
 
+// 草稿自動儲存：只送出有變更的欄位
+export interface AutosaveRequest {
+  title?: string;
+  content?: string;
+}
+
+// 自動儲存結果：savedVersion 等於 version 表示已全部寫入資料庫
+export interface AutosaveResult {
+  version: number;
+  savedVersion: number;
+}
+
+// 文章修訂版本（列表用，不含內文）
+export interface PostRevisionSummary {
+  revision: number;
+  title: string;
+  snapshot: boolean;
+  contentLength: number;
+  createdAt: string;
+}
+
+// 還原後的文章修訂版本
+export interface PostRevisionContent {
+  revision: number;
+  title: string;
+  content: string;
+  createdAt: string;
+}
+
+// 文章摘要接口（列表用，不含全文與評論）
+export interface PostSummary {
+  id: number;
+  title: string;
+  excerpt: string;
+  // 搜尋結果才有：已跳脫的 HTML，只以 <mark> 標示命中處
+  highlight?: string;
+  authorId: number;
+  authorName: string;
+  category?: Pick<Category, 'id' | 'name'>;
+  tags: Tag[];
+  createdAt?: string;
+  commentCount: number;
+  viewCount: number;
+}
+
 // 分頁回應接口
 export interface PageResponse<T> {
   content: T[];
@@ -94,6 +161,20 @@ export interface PageResponse<T> {
   empty: boolean;
 }
 
+// 游標分頁回應接口（不含總筆數）
+export interface CursorPage<T> {
+  content: T[];
+  nextCursor: string | null;
+  hasNext: boolean;
+}
+
+// 文章彙整：某年某月的已發布文章數
+export interface ArchiveMonth {
+  year: number;
+  month: number;
+  count: number;
+}
+
 // 通用響應接口
 export interface ApiResponse<T> {
   success: boolean;
@@ -1,4 +1,4 @@
-import { Category, Tag, PageResponse, FileUploadResponse, User, Comment } from '../types'
+import { Category, Tag, TagCloudEntry, PageResponse, FileUploadResponse, User, Comment } from '../types'
 import { CreateCommentRequest, UpdateCommentRequest } from '../services/comment.service';
 import { UpdateUserRequest, ChangePasswordRequest } from '../services/user.service';
 
@@ -17,6 +17,7 @@ export interface CategoryServiceInterface {
 
 export interface TagServiceInterface {
   getAllTags(): Promise<Tag[]>;
+  getTagCloud(): Promise<TagCloudEntry[]>;
   getTag(id: number): Promise<Tag>;
   createTag(tagData: CreateTagRequest): Promise<Tag>;
   updateTag(id: number, tagData: CreateTagRequest): Promise<Tag>;